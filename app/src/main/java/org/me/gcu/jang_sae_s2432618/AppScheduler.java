@@ -0,0 +1,276 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import android.util.Log;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The app's background threads: one small, bounded pool per kind of work instead of
+ * executors created ad hoc per class or per ViewModel.
+ *
+ * <ul>
+ *   <li>{@link Pool#NETWORK}: feed downloads (mostly blocked on sockets)</li>
+ *   <li>{@link Pool#CPU}: parsing, row formatting, search</li>
+ *   <li>{@link Pool#DISK}: snapshot and history files</li>
+ * </ul>
+ * Each pool has a fixed thread cap and a bounded queue; idle threads time out. Queue depth,
+ * rejections and queue-wait / run-time percentiles are kept per pool ({@link #stats}).
+ * Work that belongs to a screen goes through a {@link Scope} so it can be cancelled with it.
+ */
+public final class AppScheduler {
+
+    public enum Pool { NETWORK, CPU, DISK }
+
+    private static final String TAG = "AppScheduler";
+
+    private static final int QUEUE_CAPACITY = 64;
+    private static final long KEEP_ALIVE_S = 30;
+
+    // Network: one thread per feed MultiFeedFetcher runs at once
+    private static final AppScheduler INSTANCE = new AppScheduler(
+            MultiFeedFetcher.MAX_PARALLEL,
+            Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() - 1, 3)), 1,
+            QUEUE_CAPACITY);
+
+    public static AppScheduler get() { return INSTANCE; }
+
+    private final Map<Pool, Lane> lanes = new EnumMap<>(Pool.class);
+    private final ScheduledThreadPoolExecutor timer;
+
+    AppScheduler(int networkThreads, int cpuThreads, int diskThreads, int queueCapacity) {
+        lanes.put(Pool.NETWORK, new Lane("network", networkThreads, queueCapacity));
+        lanes.put(Pool.CPU, new Lane("cpu", cpuThreads, queueCapacity));
+        lanes.put(Pool.DISK, new Lane("disk", diskThreads, queueCapacity));
+        timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "app-timer");
+            t.setDaemon(true);
+            return t;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /** Instrumented executor for {@code pool}; throws RejectedExecutionException when full. */
+    public Executor executor(Pool pool) { return lanes.get(pool); }
+
+    /** A new FIFO lane on {@code pool}: its tasks run one at a time, in submission order. */
+    public Executor serial(Pool pool) { return new SerialExecutor(lanes.get(pool)); }
+
+    /**
+     * Run {@code task} after {@code delay} on the one timer thread: for timeouts and other
+     * tiny callbacks only; real work belongs on a pool.
+     */
+    public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return timer.schedule(task, delay, unit);
+    }
+
+    /** A new scope; close it to cancel everything launched through it. */
+    public Scope newScope(String name) { return new Scope(name); }
+
+    public Stats stats(Pool pool) { return lanes.get(pool).stats(); }
+
+    /** One line per pool, for logs and dumpsys. */
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        for (Pool p : Pool.values()) sb.append(stats(p)).append('\n');
+        return sb.toString();
+    }
+
+    void shutdownNow() {
+        for (Lane l : lanes.values()) l.pool.shutdownNow();
+        timer.shutdownNow();
+    }
+
+    /** Point-in-time numbers for one pool; latencies in microseconds. */
+    public static final class Stats {
+        public final String name;
+        public final int threads, active, queueDepth;
+        public final long completed, rejected;
+        public final long waitP50, waitP95, waitP99;
+        public final long runP50, runP95, runP99;
+        private final String waitLine, runLine;
+
+        Stats(String name, int threads, int active, int queueDepth, long completed,
+              long rejected, Metrics.Histogram wait, Metrics.Histogram run) {
+            this.name = name;
+            this.threads = threads;
+            this.active = active;
+            this.queueDepth = queueDepth;
+            this.completed = completed;
+            this.rejected = rejected;
+            this.waitP50 = wait.percentile(0.50);
+            this.waitP95 = wait.percentile(0.95);
+            this.waitP99 = wait.percentile(0.99);
+            this.runP50 = run.percentile(0.50);
+            this.runP95 = run.percentile(0.95);
+            this.runP99 = run.percentile(0.99);
+            this.waitLine = wait.toString();
+            this.runLine = run.toString();
+        }
+
+        // Latencies in the same form as every Metrics histogram in the dump
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%s: threads=%d active=%d queued=%d done=%d rejected=%d wait: %s run: %s",
+                    name, threads, active, queueDepth, completed, rejected, waitLine, runLine);
+        }
+    }
+
+    /**
+     * Work owned by something with a lifetime (a ViewModel, a screen). After {@link #close()}
+     * queued tasks never start, running ones are interrupted and new ones are dropped.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final String name;
+        private final Set<Future<?>> live = ConcurrentHashMap.newKeySet();
+        private volatile boolean closed;
+
+        Scope(String name) { this.name = name; }
+
+        public Future<?> launch(Executor executor, Runnable task) {
+            FutureTask<Void> f = new FutureTask<Void>(task, null) {
+                @Override protected void done() { live.remove(this); }
+            };
+            if (closed) {
+                f.cancel(false);
+                return f;
+            }
+            live.add(f);
+            try {
+                executor.execute(f);
+            } catch (RejectedExecutionException e) {
+                f.cancel(false);
+                throw e;
+            }
+            if (closed) f.cancel(true); // closed while we were submitting
+            return f;
+        }
+
+        public boolean isClosed() { return closed; }
+
+        @Override
+        public void close() {
+            closed = true;
+            for (Future<?> f : live) f.cancel(true);
+            live.clear();
+        }
+
+        @Override
+        public String toString() { return "Scope(" + name + ", live=" + live.size() + ")"; }
+    }
+
+    // --- internals -----------------------------------------------------------------------------
+
+    private static final class Lane implements Executor {
+        final String name;
+        final ThreadPoolExecutor pool;
+        // Per instance, not registered: the dump prints them with the pool's gauges
+        final Metrics.Histogram wait = new Metrics.Histogram("us");
+        final Metrics.Histogram run = new Metrics.Histogram("us");
+        final AtomicLong rejected = new AtomicLong();
+
+        Lane(String name, int threads, int queueCapacity) {
+            this.name = name;
+            AtomicInteger n = new AtomicInteger();
+            pool = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_S, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity), r -> {
+                        Thread t = new Thread(r, "app-" + name + "-" + n.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+            pool.allowCoreThreadTimeOut(true);
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            final long queuedAt = System.nanoTime();
+            try {
+                pool.execute(() -> {
+                    long start = System.nanoTime();
+                    wait.recordNanos(start - queuedAt);
+                    try {
+                        task.run();
+                    } finally {
+                        run.recordNanos(System.nanoTime() - start);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejected.incrementAndGet();
+                throw e;
+            }
+        }
+
+        Stats stats() {
+            return new Stats(name, pool.getPoolSize(), pool.getActiveCount(),
+                    pool.getQueue().size(), pool.getCompletedTaskCount(), rejected.get(),
+                    wait, run);
+        }
+    }
+
+    /**
+     * Runs tasks one at a time, in order, on a shared executor. If the executor is full when
+     * a task finishes, the rest stay queued and the next {@link #execute} restarts them.
+     */
+    private static final class SerialExecutor implements Executor {
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        private final Executor target;
+        private Runnable active;
+
+        SerialExecutor(Executor target) { this.target = target; }
+
+        @Override
+        public synchronized void execute(Runnable r) {
+            Runnable wrapped = () -> {
+                try {
+                    r.run();
+                } finally {
+                    scheduleNext();
+                }
+            };
+            tasks.add(wrapped);
+            if (active != null) return;
+            try {
+                startNext();
+            } catch (RejectedExecutionException e) {
+                tasks.removeLastOccurrence(wrapped); // the caller's task is refused, not queued
+                throw e;
+            }
+        }
+
+        // Pool thread, after a task: nobody up the stack would catch a rejection
+        private synchronized void scheduleNext() {
+            try {
+                startNext();
+            } catch (RejectedExecutionException e) {
+                Log.w(TAG, "pool full; " + tasks.size() + " serial tasks wait for the next execute");
+            }
+        }
+
+        private void startNext() {
+            if ((active = tasks.poll()) == null) return;
+            try {
+                target.execute(active);
+            } catch (RejectedExecutionException e) {
+                tasks.addFirst(active); // keep it, in order, for the next attempt
+                active = null;
+                throw e;
+            }
+        }
+    }
+}
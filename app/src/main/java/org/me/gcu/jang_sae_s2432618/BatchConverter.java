@@ -0,0 +1,97 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import java.util.List;
+
+/**
+ * Converts amounts across every currency of one snapshot in a single pass.
+ *
+ * Rates are the feed's exact digits ({@link RateItem#rateUnscaled}); each result is a
+ * couple of long multiplications and one rounded division ({@link FixedPoint}), with
+ * BigDecimal only for the rare amount large enough to overflow. Results are unscaled
+ * longs at {@link #RESULT_SCALE} (minor units), or {@link FixedPoint#OVERFLOW}.
+ */
+public final class BatchConverter {
+
+    /** Results are rounded HALF_UP to 2 decimal places, like the converter screen shows. */
+    public static final int RESULT_SCALE = 2;
+
+    /** Index meaning the GBP pivot itself (rate 1). */
+    public static final int PIVOT = -1;
+
+    private final String[] codes;
+    private final long[] rateU;     // units per 1 GBP, unscaled
+    private final int[] rateS;      // ... and its scale
+    private final int[] index;      // position + 1 by CurrencyRegistry ordinal, 0 = absent
+
+    public BatchConverter(List<RateItem> items) {
+        int n = items.size();
+        codes = new String[n];
+        rateU = new long[n];
+        rateS = new int[n];
+        int max = -1;
+        for (RateItem it : items) max = Math.max(max, it.ordinal);
+        index = new int[max + 1];
+        for (int i = 0; i < n; i++) {
+            RateItem it = items.get(i);
+            codes[i] = it.code;
+            if (it.rateUnscaled > 0) { // else 0: results for it are OVERFLOW
+                rateU[i] = it.rateUnscaled;
+                rateS[i] = it.rateScale;
+            }
+            if (it.ordinal >= 0) index[it.ordinal] = i + 1;
+        }
+    }
+
+    public int size() { return codes.length; }
+
+    public String code(int i) { return i == PIVOT ? CrossRateEngine.PIVOT : codes[i]; }
+
+    /** Position of {@code code}, {@link #PIVOT} for GBP, or -2 if not in this snapshot. */
+    public int indexOf(String code) {
+        return indexOf(CurrencyRegistry.find(code));
+    }
+
+    /** As {@link #indexOf(String)} for a {@link CurrencyRegistry} ordinal. */
+    public int indexOf(int ordinal) {
+        if (ordinal == CrossRateEngine.PIVOT_ORDINAL) return PIVOT;
+        int i = (ordinal >= 0 && ordinal < index.length) ? index[ordinal] : 0;
+        return i == 0 ? -2 : i - 1;
+    }
+
+    /** One amount of currency {@code from} in currency {@code to}. */
+    public long convert(FixedPoint.Value amount, int from, int to) {
+        return convert(amount.unscaled, amount.scale, from, to);
+    }
+
+    /**
+     * {@code amount} of currency {@code from} expressed in every currency of the snapshot:
+     * {@code out[i]} for {@code i < size()}. Allocation-free; {@code out} needs size() slots.
+     */
+    public void oneToAll(FixedPoint.Value amount, int from, long[] out) {
+        if (out.length < codes.length) {
+            throw new IllegalArgumentException("need " + codes.length + " slots, got " + out.length);
+        }
+        for (int i = 0; i < codes.length; i++) out[i] = convert(amount.unscaled, amount.scale, from, i);
+    }
+
+    /**
+     * Many amounts (all at {@code amountScale}) for one pair: {@code out[k]} is
+     * {@code amounts[k]} of {@code from} in {@code to}. Allocation-free.
+     */
+    public void manyForPair(long[] amounts, int amountScale, int from, int to, long[] out) {
+        if (out.length < amounts.length) {
+            throw new IllegalArgumentException("need " + amounts.length + " slots, got " + out.length);
+        }
+        for (int k = 0; k < amounts.length; k++) out[k] = convert(amounts[k], amountScale, from, to);
+    }
+
+    private long convert(long amountU, int amountS, int from, int to) {
+        long fromU = (from == PIVOT) ? 1 : rateU[from];
+        long toU   = (to == PIVOT) ? 1 : rateU[to];
+        if (fromU == 0 || toU == 0) return FixedPoint.OVERFLOW; // no usable rate
+        int fromS = (from == PIVOT) ? 0 : rateS[from];
+        int toS   = (to == PIVOT) ? 0 : rateS[to];
+        // Amount in GBP is amount / from; in `to` that times `to`
+        return FixedPoint.convert(amountU, amountS, toU, toS, fromU, fromS, RESULT_SCALE);
+    }
+}
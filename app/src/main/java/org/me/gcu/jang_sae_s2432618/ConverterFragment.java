@@ -14,30 +14,34 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.Locale;
 
 public class ConverterFragment extends Fragment {
 
     private static final String ARG_CODE = "code";
     private static final String ARG_NAME = "name";
-    private static final String ARG_RATE = "rate"; // 1 GBP -> rate * CODE
+    private static final String ARG_RATE_UNSCALED = "rate_unscaled"; // 1 GBP -> rate * CODE,
+    private static final String ARG_RATE_SCALE    = "rate_scale";    // exact as in the feed
 
     public static ConverterFragment newInstance(RateItem item) {
         Bundle b = new Bundle();
         b.putString(ARG_CODE, item.code);
         b.putString(ARG_NAME, item.name);
-        b.putDouble(ARG_RATE, item.rate);
+        b.putLong(ARG_RATE_UNSCALED, item.rateUnscaled);
+        b.putInt(ARG_RATE_SCALE, item.rateScale);
         ConverterFragment f = new ConverterFragment();
         f.setArguments(b);
         return f;
     }
 
     private String code = "USD";
+    private int ordinal;            // CurrencyRegistry ordinal of code
     private String name = "Dollar";
-    private double rate = 1.0;
+    private long rateUnscaled = 1;  // 0: no usable rate
+    private int rateScale = 0;
 
     private TextView pairTitle, rateInfo, resultText, warnText;
     private RadioGroup directionGroup;
@@ -82,23 +86,33 @@ public class ConverterFragment extends Fragment {
         if (args != null) {
             String aCode = args.getString(ARG_CODE);
             String aName = args.getString(ARG_NAME);
-            double aRate = args.getDouble(ARG_RATE, Double.NaN);
             if (!TextUtils.isEmpty(aCode)) code = aCode;
             if (!TextUtils.isEmpty(aName)) name = aName;
-            if (!Double.isNaN(aRate)) rate = aRate;
+            if (args.containsKey(ARG_RATE_UNSCALED)) {
+                rateUnscaled = args.getLong(ARG_RATE_UNSCALED);
+                rateScale = args.getInt(ARG_RATE_SCALE);
+            }
         }
+        ordinal = CurrencyRegistry.ordinal(code);
 
         pairTitle.setText(String.format(Locale.UK, "GBP ↔ %s", code));
 
-
-        rateInfo.setText(String.format(
-                Locale.UK,
-                "Rate (GBP : %s): %s",
-                code,
-                BigDecimal.valueOf(rate)
-                        .setScale(6, RoundingMode.HALF_UP)
-                        .toPlainString()
-        ));
+        showRate();
+
+        // Follow refreshes of this pair only; other currencies moving don't touch the view
+        RatesViewModel vm = new ViewModelProvider(requireActivity()).get(RatesViewModel.class);
+        vm.changes.observe(getViewLifecycleOwner(), delta -> {
+            if (delta == null) return;
+            for (RatesDelta.Change c : delta.changed) {
+                if (c.after.ordinal == ordinal) {
+                    rateUnscaled = c.after.rateUnscaled;
+                    rateScale = c.after.rateScale;
+                    showRate();
+                    resultText.setText("Result: —");
+                    return;
+                }
+            }
+        });
 
         convertBtn.setOnClickListener(view -> doConvert());
         directionGroup.setOnCheckedChangeListener((g, id) -> {
@@ -107,6 +121,16 @@ public class ConverterFragment extends Fragment {
         });
     }
 
+    private void showRate() {
+        rateInfo.setText(String.format(
+                Locale.UK,
+                "Rate (GBP : %s): %s",
+                code,
+                FixedPoint.toPlainString(
+                        FixedPoint.convert(rateUnscaled, rateScale, 1, 0, 1, 0, 6), 6)
+        ));
+    }
+
     private void doConvert() {
         warnText.setText("");
 
@@ -118,54 +142,61 @@ public class ConverterFragment extends Fragment {
             return;
         }
 
-        // allow comma decimal
-        raw = raw.replace(',', '.');
-
-        BigDecimal amt;
-        try {
-            amt = new BigDecimal(raw);
-        } catch (NumberFormatException e) {
-            warnText.setText("Invalid number.");
-            return;
+        // Exact decimal; comma decimal allowed
+        FixedPoint.Value amt = FixedPoint.parse(raw);
+        if (amt == null) {
+            // Exponents ("1e3") and long amounts, as BigDecimal always accepted them
+            BigDecimal bd;
+            try {
+                bd = new BigDecimal(raw.replace(',', '.'));
+            } catch (NumberFormatException e) {
+                warnText.setText("Invalid number.");
+                return;
+            }
+            amt = FixedPoint.of(bd);
+            if (amt == null) {
+                warnText.setText("Amount is too large.");
+                return;
+            }
         }
 
-        if (amt.signum() < 0) {
+        if (amt.unscaled < 0) {
             warnText.setText("Amount must be non-negative.");
             return;
         }
-        if (rate <= 0) {
+        if (rateUnscaled <= 0) {
             warnText.setText("Rate unavailable. Try refreshing.");
             return;
         }
 
         boolean gbpToX = (directionGroup.getCheckedRadioButtonId() == R.id.dirGbpToX);
 
-        BigDecimal rateBD = BigDecimal.valueOf(rate);
-
-        // Do precise math, keep extra precision during division
-        BigDecimal rawOut = gbpToX
-                ? amt.multiply(rateBD)                              // GBP -> CODE
-                : amt.divide(rateBD, 12, RoundingMode.HALF_UP);     // CODE -> GBP
-
-        // Display values at 2 dp
-        BigDecimal shownAmt = amt.setScale(2, RoundingMode.HALF_UP);
-        BigDecimal shownOut = rawOut.setScale(2, RoundingMode.HALF_UP);
+        // One HALF_UP rounding, straight to the 2 dp shown
+        int dp = BatchConverter.RESULT_SCALE;
+        long shownAmt = FixedPoint.convert(amt.unscaled, amt.scale, 1, 0, 1, 0, dp);
+        long shownOut = gbpToX
+                ? FixedPoint.convert(amt.unscaled, amt.scale, rateUnscaled, rateScale, 1, 0, dp) // GBP -> CODE
+                : FixedPoint.convert(amt.unscaled, amt.scale, 1, 0, rateUnscaled, rateScale, dp); // CODE -> GBP
+        if (shownAmt == FixedPoint.OVERFLOW || shownOut == FixedPoint.OVERFLOW) {
+            warnText.setText("Amount is too large.");
+            return;
+        }
 
         if (gbpToX) {
             resultText.setText(String.format(
                     Locale.UK,
                     "Result: £%s GBP = %s %s",
-                    shownAmt.toPlainString(),
-                    shownOut.toPlainString(),
+                    FixedPoint.toPlainString(shownAmt, dp),
+                    FixedPoint.toPlainString(shownOut, dp),
                     code
             ));
         } else {
             resultText.setText(String.format(
                     Locale.UK,
                     "Result: %s %s = £%s GBP",
-                    shownAmt.toPlainString(),
+                    FixedPoint.toPlainString(shownAmt, dp),
                     code,
-                    shownOut.toPlainString()
+                    FixedPoint.toPlainString(shownOut, dp)
             ));
         }
     }
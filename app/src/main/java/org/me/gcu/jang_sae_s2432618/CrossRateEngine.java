@@ -0,0 +1,82 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Any-to-any exchange rates for one snapshot, through the feed's GBP pivot.
+ *
+ * Currencies are addressed by their {@link CurrencyRegistry} ordinal; the engine
+ * keeps "units per 1 GBP" in a plain {@code double[]} indexed by ordinal, so a pair is two
+ * array reads and a division. Immutable once built; share it freely across threads.
+ */
+public final class CrossRateEngine {
+
+    public static final String PIVOT = "GBP";
+
+    public static final int PIVOT_ORDINAL = CurrencyRegistry.ordinal(PIVOT);
+
+    /** Shorthand for {@link CurrencyRegistry#ordinal(String)}. */
+    public static int ordinal(String code) {
+        return CurrencyRegistry.ordinal(code);
+    }
+
+    /** Ordinal of {@code code} if it is known, else -1 (no side effects). */
+    public static int ordinalIfKnown(String code) {
+        return CurrencyRegistry.find(code);
+    }
+
+    public static final CrossRateEngine EMPTY = new CrossRateEngine(new double[0]);
+
+    // units of currency per 1 GBP by ordinal; NaN = not in this snapshot
+    private final double[] perPivot;
+
+    private CrossRateEngine(double[] perPivot) {
+        this.perPivot = perPivot;
+    }
+
+    /** Build from GBP-based feed items (the pivot itself is implied at 1.0). */
+    public static CrossRateEngine of(List<RateItem> items) {
+        int max = PIVOT_ORDINAL;
+        for (RateItem it : items) max = Math.max(max, it.ordinal);
+        double[] per = new double[max + 1];
+        Arrays.fill(per, Double.NaN);
+        per[PIVOT_ORDINAL] = 1.0;
+        for (RateItem it : items) {
+            if (it.ordinal >= 0 && it.rate > 0) per[it.ordinal] = it.rate;
+        }
+        return new CrossRateEngine(per);
+    }
+
+    /** Array length {@link #fill} needs: one slot per ordinal this snapshot knows about. */
+    public int capacity() { return perPivot.length; }
+
+    public boolean has(int ordinal) {
+        return ordinal >= 0 && ordinal < perPivot.length && !Double.isNaN(perPivot[ordinal]);
+    }
+
+    /** Units of {@code to} per 1 unit of {@code from}; NaN if either is unknown. */
+    public double rate(int from, int to) {
+        if (!has(from) || !has(to)) return Double.NaN;
+        return perPivot[to] / perPivot[from];
+    }
+
+    public double rate(String from, String to) {
+        return rate(ordinalIfKnown(from), ordinalIfKnown(to));
+    }
+
+    /**
+     * {@code out[o] = rate(base, o)} for every ordinal {@code o < capacity()} (NaN where
+     * unknown). Allocation-free; {@code out} must hold at least {@link #capacity()} values.
+     * Returns the number of slots written, or 0 if {@code base} is unknown.
+     */
+    public int fill(int base, double[] out) {
+        if (!has(base)) return 0;
+        int n = perPivot.length;
+        if (out.length < n) throw new IllegalArgumentException("need " + n + " slots, got " + out.length);
+        double inv = 1.0 / perPivot[base];
+        for (int o = 0; o < n; o++) out[o] = perPivot[o] * inv; // NaN stays NaN
+        out[base] = 1.0; // exact, not r * (1 / r)
+        return n;
+    }
+}
@@ -0,0 +1,306 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import java.util.Arrays;
+
+/**
+ * Every currency code the app knows, interned to a small int ordinal.
+ *
+ * The ISO 4217 table below (plus a few codes feeds use that ISO does not list) gets ordinals
+ * 0..n-1 in table order; any other well-formed code met at runtime is interned after them.
+ * A code's three letters A-Z index a 26³-slot table directly, so looking up an ordinal is
+ * three subtractions and one array read, with no hashing of the String. Ordinals are
+ * process-wide and never change, so they can index per-currency arrays. Thread-safe.
+ */
+public final class CurrencyRegistry {
+    private CurrencyRegistry() {}
+
+    /** Ordinal for something that is not a 3-letter upper-case code. */
+    public static final int UNKNOWN = -1;
+
+    // code numeric minorUnits ('-' = not applicable) flagRegion ('--' = none) name
+    private static final String[] ISO_4217 = {
+            "AED 784 2 AE UAE Dirham",
+            "AFN 971 2 AF Afghani",
+            "ALL 008 2 AL Lek",
+            "AMD 051 2 AM Armenian Dram",
+            "ANG 532 2 CW Netherlands Antillean Guilder",
+            "AOA 973 2 AO Kwanza",
+            "ARS 032 2 AR Argentine Peso",
+            "AUD 036 2 AU Australian Dollar",
+            "AWG 533 2 AW Aruban Florin",
+            "AZN 944 2 AZ Azerbaijan Manat",
+            "BAM 977 2 BA Convertible Mark",
+            "BBD 052 2 BB Barbados Dollar",
+            "BDT 050 2 BD Taka",
+            "BGN 975 2 BG Bulgarian Lev",
+            "BHD 048 3 BH Bahraini Dinar",
+            "BIF 108 0 BI Burundi Franc",
+            "BMD 060 2 BM Bermudian Dollar",
+            "BND 096 2 BN Brunei Dollar",
+            "BOB 068 2 BO Boliviano",
+            "BRL 986 2 BR Brazilian Real",
+            "BSD 044 2 BS Bahamian Dollar",
+            "BTN 064 2 BT Ngultrum",
+            "BWP 072 2 BW Pula",
+            "BYN 933 2 BY Belarusian Ruble",
+            "BZD 084 2 BZ Belize Dollar",
+            "CAD 124 2 CA Canadian Dollar",
+            "CDF 976 2 CD Congolese Franc",
+            "CHF 756 2 CH Swiss Franc",
+            "CLP 152 0 CL Chilean Peso",
+            "CNY 156 2 CN Yuan Renminbi",
+            "COP 170 2 CO Colombian Peso",
+            "CRC 188 2 CR Costa Rican Colon",
+            "CUC 931 2 CU Peso Convertible",
+            "CUP 192 2 CU Cuban Peso",
+            "CVE 132 2 CV Cabo Verde Escudo",
+            "CZK 203 2 CZ Czech Koruna",
+            "DJF 262 0 DJ Djibouti Franc",
+            "DKK 208 2 DK Danish Krone",
+            "DOP 214 2 DO Dominican Peso",
+            "DZD 012 2 DZ Algerian Dinar",
+            "EGP 818 2 EG Egyptian Pound",
+            "ERN 232 2 ER Nakfa",
+            "ETB 230 2 ET Ethiopian Birr",
+            "EUR 978 2 EU Euro",
+            "FJD 242 2 FJ Fiji Dollar",
+            "FKP 238 2 FK Falkland Islands Pound",
+            "GBP 826 2 GB Pound Sterling",
+            "GEL 981 2 GE Lari",
+            "GHS 936 2 GH Ghana Cedi",
+            "GIP 292 2 GI Gibraltar Pound",
+            "GMD 270 2 GM Dalasi",
+            "GNF 324 0 GN Guinean Franc",
+            "GTQ 320 2 GT Quetzal",
+            "GYD 328 2 GY Guyana Dollar",
+            "HKD 344 2 HK Hong Kong Dollar",
+            "HNL 340 2 HN Lempira",
+            "HTG 332 2 HT Gourde",
+            "HUF 348 2 HU Forint",
+            "IDR 360 2 ID Rupiah",
+            "ILS 376 2 IL New Israeli Sheqel",
+            "INR 356 2 IN Indian Rupee",
+            "IQD 368 3 IQ Iraqi Dinar",
+            "IRR 364 2 IR Iranian Rial",
+            "ISK 352 0 IS Iceland Krona",
+            "JMD 388 2 JM Jamaican Dollar",
+            "JOD 400 3 JO Jordanian Dinar",
+            "JPY 392 0 JP Yen",
+            "KES 404 2 KE Kenyan Shilling",
+            "KGS 417 2 KG Som",
+            "KHR 116 2 KH Riel",
+            "KMF 174 0 KM Comorian Franc",
+            "KPW 408 2 KP North Korean Won",
+            "KRW 410 0 KR Won",
+            "KWD 414 3 KW Kuwaiti Dinar",
+            "KYD 136 2 KY Cayman Islands Dollar",
+            "KZT 398 2 KZ Tenge",
+            "LAK 418 2 LA Lao Kip",
+            "LBP 422 2 LB Lebanese Pound",
+            "LKR 144 2 LK Sri Lanka Rupee",
+            "LRD 430 2 LR Liberian Dollar",
+            "LSL 426 2 LS Loti",
+            "LYD 434 3 LY Libyan Dinar",
+            "MAD 504 2 MA Moroccan Dirham",
+            "MDL 498 2 MD Moldovan Leu",
+            "MGA 969 2 MG Malagasy Ariary",
+            "MKD 807 2 MK Denar",
+            "MMK 104 2 MM Kyat",
+            "MNT 496 2 MN Tugrik",
+            "MOP 446 2 MO Pataca",
+            "MRU 929 2 MR Ouguiya",
+            "MUR 480 2 MU Mauritius Rupee",
+            "MVR 462 2 MV Rufiyaa",
+            "MWK 454 2 MW Malawi Kwacha",
+            "MXN 484 2 MX Mexican Peso",
+            "MYR 458 2 MY Malaysian Ringgit",
+            "MZN 943 2 MZ Mozambique Metical",
+            "NAD 516 2 NA Namibia Dollar",
+            "NGN 566 2 NG Naira",
+            "NIO 558 2 NI Cordoba Oro",
+            "NOK 578 2 NO Norwegian Krone",
+            "NPR 524 2 NP Nepalese Rupee",
+            "NZD 554 2 NZ New Zealand Dollar",
+            "OMR 512 3 OM Rial Omani",
+            "PAB 590 2 PA Balboa",
+            "PEN 604 2 PE Sol",
+            "PGK 598 2 PG Kina",
+            "PHP 608 2 PH Philippine Peso",
+            "PKR 586 2 PK Pakistan Rupee",
+            "PLN 985 2 PL Zloty",
+            "PYG 600 0 PY Guarani",
+            "QAR 634 2 QA Qatari Rial",
+            "RON 946 2 RO Romanian Leu",
+            "RSD 941 2 RS Serbian Dinar",
+            "RUB 643 2 RU Russian Ruble",
+            "RWF 646 0 RW Rwanda Franc",
+            "SAR 682 2 SA Saudi Riyal",
+            "SBD 090 2 SB Solomon Islands Dollar",
+            "SCR 690 2 SC Seychelles Rupee",
+            "SDG 938 2 SD Sudanese Pound",
+            "SEK 752 2 SE Swedish Krona",
+            "SGD 702 2 SG Singapore Dollar",
+            "SHP 654 2 SH Saint Helena Pound",
+            "SLE 925 2 SL Leone",
+            "SLL 694 2 SL Leone (old)",
+            "SOS 706 2 SO Somali Shilling",
+            "SRD 968 2 SR Surinam Dollar",
+            "SSP 728 2 SS South Sudanese Pound",
+            "STN 930 2 ST Dobra",
+            "SVC 222 2 SV El Salvador Colon",
+            "SYP 760 2 SY Syrian Pound",
+            "SZL 748 2 SZ Lilangeni",
+            "THB 764 2 TH Baht",
+            "TJS 972 2 TJ Somoni",
+            "TMT 934 2 TM Turkmenistan New Manat",
+            "TND 788 3 TN Tunisian Dinar",
+            "TOP 776 2 TO Pa'anga",
+            "TRY 949 2 TR Turkish Lira",
+            "TTD 780 2 TT Trinidad and Tobago Dollar",
+            "TWD 901 2 TW New Taiwan Dollar",
+            "TZS 834 2 TZ Tanzanian Shilling",
+            "UAH 980 2 UA Hryvnia",
+            "UGX 800 0 UG Uganda Shilling",
+            "USD 840 2 US US Dollar",
+            "UYU 858 2 UY Peso Uruguayo",
+            "UZS 860 2 UZ Uzbekistan Sum",
+            "VES 928 2 VE Bolivar Soberano",
+            "VND 704 0 VN Dong",
+            "VUV 548 0 VU Vatu",
+            "WST 882 2 WS Tala",
+            "XAF 950 0 CM CFA Franc BEAC",
+            "XAG 961 - -- Silver",
+            "XAU 959 - -- Gold",
+            "XCD 951 2 AG East Caribbean Dollar",
+            "XDR 960 - -- SDR (Special Drawing Right)",
+            "XOF 952 0 SN CFA Franc BCEAO",
+            "XPD 964 - -- Palladium",
+            "XPF 953 0 PF CFP Franc",
+            "XPT 962 - -- Platinum",
+            "YER 886 2 YE Yemeni Rial",
+            "ZAR 710 2 ZA Rand",
+            "ZMW 967 2 ZM Zambian Kwacha",
+            "ZWG 924 2 ZW Zimbabwe Gold",
+            "ZWL 932 2 ZW Zimbabwe Dollar",
+            // Withdrawn, but older feeds and snapshots still carry them
+            "HRK 191 2 HR Kuna",
+            "VEF 937 2 VE Bolivar",
+            // Not in ISO 4217 (numeric 000)
+            "GGP 000 2 GG Guernsey Pound",
+            "IMP 000 2 IM Manx Pound",
+            "JEP 000 2 JE Jersey Pound",
+            "KID 000 2 KI Kiribati Dollar",
+    };
+
+    private static final int SLOTS = 26 * 26 * 26;
+
+    // Ordinal + 1 by slot, 0 = not interned. Plain reads: a 0 seen late just takes the lock
+    private static final short[] BY_SLOT = new short[SLOTS];
+
+    private static final int ISO_COUNT = ISO_4217.length;
+    private static final short[] NUMERIC = new short[ISO_COUNT];
+    private static final byte[] MINOR_UNITS = new byte[ISO_COUNT];
+    private static final String[] NAMES = new String[ISO_COUNT];
+    private static final String[] REGIONS = new String[ISO_COUNT];
+
+    // Grows as codes are interned; a copy is published on every change
+    private static volatile String[] codes = new String[ISO_COUNT];
+
+    static {
+        String[] c = codes;
+        for (int o = 0; o < ISO_COUNT; o++) {
+            String row = ISO_4217[o];
+            c[o] = row.substring(0, 3);
+            NUMERIC[o] = Short.parseShort(row.substring(4, 7));
+            MINOR_UNITS[o] = (byte) (row.charAt(8) == '-' ? -1 : row.charAt(8) - '0');
+            REGIONS[o] = row.startsWith("--", 10) ? null : row.substring(10, 12);
+            NAMES[o] = row.substring(13);
+            int slot = slot(c[o], 0);
+            if (BY_SLOT[slot] != 0) throw new IllegalStateException("duplicate " + c[o]);
+            BY_SLOT[slot] = (short) (o + 1);
+        }
+    }
+
+    /** Index of the three letters at {@code at}, or -1 if they are not all A-Z. */
+    private static int slot(CharSequence s, int at) {
+        int a = s.charAt(at) - 'A', b = s.charAt(at + 1) - 'A', c = s.charAt(at + 2) - 'A';
+        if ((a | b | c) < 0 || a >= 26 || b >= 26 || c >= 26) return -1;
+        return (a * 26 + b) * 26 + c;
+    }
+
+    private static int slot(char[] s, int at) {
+        int a = s[at] - 'A', b = s[at + 1] - 'A', c = s[at + 2] - 'A';
+        if ((a | b | c) < 0 || a >= 26 || b >= 26 || c >= 26) return -1;
+        return (a * 26 + b) * 26 + c;
+    }
+
+    /** Ordinal of {@code code}, interning it on first sight; {@link #UNKNOWN} if not a code. */
+    public static int ordinal(String code) {
+        if (code == null || code.length() != 3) return UNKNOWN;
+        int slot = slot(code, 0);
+        if (slot < 0) return UNKNOWN;
+        int o = BY_SLOT[slot] - 1;
+        return o >= 0 ? o : intern(slot, code);
+    }
+
+    /** As {@link #ordinal(String)} for the three chars at {@code s[at]}, without a String. */
+    public static int ordinal(char[] s, int at) {
+        int slot = slot(s, at);
+        if (slot < 0) return UNKNOWN;
+        int o = BY_SLOT[slot] - 1;
+        return o >= 0 ? o : intern(slot, new String(s, at, 3));
+    }
+
+    /** Ordinal of {@code code} if it is known, else {@link #UNKNOWN} (never interns). */
+    public static int find(String code) {
+        if (code == null || code.length() != 3) return UNKNOWN;
+        int slot = slot(code, 0);
+        if (slot < 0) return UNKNOWN;
+        int o = BY_SLOT[slot] - 1;
+        if (o >= 0) return o;
+        synchronized (CurrencyRegistry.class) {
+            return BY_SLOT[slot] - 1;
+        }
+    }
+
+    private static synchronized int intern(int slot, String code) {
+        int o = BY_SLOT[slot] - 1;
+        if (o >= 0) return o;
+        String[] c = codes;
+        o = c.length;
+        String[] grown = Arrays.copyOf(c, o + 1);
+        grown[o] = code;
+        codes = grown; // publish the code before the slot points at it
+        BY_SLOT[slot] = (short) (o + 1);
+        return o;
+    }
+
+    /** The interned code for {@code ordinal}, e.g. "GBP"; null if it was never assigned. */
+    public static String code(int ordinal) {
+        if (ordinal < 0) return null;
+        String[] c = codes;
+        if (ordinal < c.length) return c[ordinal];
+        synchronized (CurrencyRegistry.class) {
+            c = codes;
+            return ordinal < c.length ? c[ordinal] : null;
+        }
+    }
+
+    /** Ordinals handed out so far; a per-currency array of this length can hold every one. */
+    public static int size() { return codes.length; }
+
+    /** Whether {@code ordinal} comes from the built-in table rather than a feed. */
+    public static boolean isListed(int ordinal) { return ordinal >= 0 && ordinal < ISO_COUNT; }
+
+    /** ISO 4217 numeric code, 0 if it has none. */
+    public static int numeric(int ordinal) { return isListed(ordinal) ? NUMERIC[ordinal] : 0; }
+
+    /** Digits after the decimal point (JPY 0, KWD 3); 2 if unknown, -1 for metals and SDR. */
+    public static int minorUnits(int ordinal) { return isListed(ordinal) ? MINOR_UNITS[ordinal] : 2; }
+
+    /** English name from the table; the code itself if unlisted. */
+    public static String name(int ordinal) { return isListed(ordinal) ? NAMES[ordinal] : code(ordinal); }
+
+    /** ISO-3166 alpha-2 region whose flag represents the currency ("EU" for the euro), or null. */
+    public static String flagRegion(int ordinal) { return isListed(ordinal) ? REGIONS[ordinal] : null; }
+}
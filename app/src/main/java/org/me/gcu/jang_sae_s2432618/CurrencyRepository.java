@@ -1,5 +1,7 @@
 package org.me.gcu.jang_sae_s2432618;
 
+import android.content.Context;
+import android.os.Trace;
 import android.util.Log;
 
 import androidx.lifecycle.LiveData;
@@ -10,11 +12,42 @@ import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.List;
-
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Process-wide holder of the rates on screen.
+ *
+ * FetchRssWorker (and the foreground refresh) parse the feed once and {@link #publish} the
+ * resulting snapshot here; the UI only learns that {@link #version()} moved on. Snapshots
+ * are only read back from disk when this process has not seen the version yet (cold start,
+ * or a worker that ran in another process).
+ */
 public class CurrencyRepository {
 
     private static final String TAG = "CurrencyRepository";
 
+    private static volatile CurrencyRepository instance;
+
+    public static CurrencyRepository get(Context context) {
+        if (instance == null) {
+            synchronized (CurrencyRepository.class) {
+                if (instance == null) {
+                    instance = new CurrencyRepository(SnapshotStore.get(context),
+                            HistoryStore.get(context));
+                }
+            }
+        }
+        return instance;
+    }
+
+    private final SnapshotStore store;
+    private final HistoryStore history;
+    private final Executor disk = AppScheduler.get().executor(AppScheduler.Pool.DISK);
+
+    // Version of the snapshot currently applied (0 = none yet); written under the lock
+    private volatile long appliedVersion;
+
     private static final DateTimeFormatter RFC822_UTC =
             DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'UTC'")
                     .withZone(ZoneOffset.UTC);
@@ -30,15 +63,142 @@ public class CurrencyRepository {
             new MutableLiveData<>(null);
     private final MutableLiveData<String>         _title       =
             new MutableLiveData<>("British Pound Sterling(GBP) Currency\nExchange Rates");
+    private final MutableLiveData<Long>           _version     =
+            new MutableLiveData<>(0L);
+    private final MutableLiveData<RatesDelta>     _changes     =
+            new MutableLiveData<>(RatesDelta.NONE);
+
+    // Rates last posted to _rates; the base for the next diff
+    private List<RateItem> current = Collections.emptyList();
+    // `current` by CurrencyRegistry ordinal
+    private volatile RateItem[] byOrdinal = new RateItem[0];
+    // Any-to-any rates for `current`
+    private volatile CrossRateEngine crossRates = CrossRateEngine.EMPTY;
+    // Exact batch conversions for `current`
+    private volatile BatchConverter converter = new BatchConverter(Collections.emptyList());
+    // Rolling windows per currency, fed by every publish; seeded from history once
+    private final RollingStats stats = new RollingStats();
+    // Guards the one-off history read; never held together with `this` by the main thread
+    private final Object seedLock = new Object();
+    private boolean statsSeeded;
+
+    CurrencyRepository(SnapshotStore store, HistoryStore history) {
+        this.store = store;
+        this.history = history;
+    }
 
     public LiveData<List<RateItem>> rates()       { return _rates; }
     public LiveData<String>         lastUpdated() { return _lastUpdated; }
     public LiveData<Boolean>        loading()     { return _loading; }
     public LiveData<String>         error()       { return _error; }
     public LiveData<String>         title()       { return _title; }
+    public LiveData<Long>           version()     { return _version; }
+
+    /**
+     * Per-currency changes between the previous and the current {@link #rates()}.
+     * Like any LiveData, a value can be superseded before an observer sees it; rates() always
+     * holds the complete list.
+     */
+    public LiveData<RatesDelta>     changes()     { return _changes; }
+
+    /** Cross rates for the rates currently applied (rebuilt only when they change). */
+    public CrossRateEngine crossRates() { return crossRates; }
+
+    /** Rolling min/max/mean/volatility per currency; updated before rates() is posted. */
+    public RollingStats rollingStats() { return stats; }
+
+    /** The applied rate for a {@link CurrencyRegistry} ordinal, or null (any thread). */
+    public RateItem item(int ordinal) {
+        RateItem[] a = byOrdinal;
+        return (ordinal >= 0 && ordinal < a.length) ? a[ordinal] : null;
+    }
+
+    /** Exact amount conversions for the rates currently applied (rebuilt with them). */
+    public BatchConverter converter() { return converter; }
+
+    /** Version of the rates currently applied; 0 before the first publish. */
+    public long appliedVersion() { return appliedVersion; }
+
+    /**
+     * Show {@code snap} unless the same or a newer version is already applied (background
+     * threads only: the first call also reads the last 30 days of history, before taking the
+     * lock the UI thread may wait on). Returns whether it was applied.
+     */
+    public boolean publish(RatesSnapshot snap) {
+        if (snap == null || snap.version <= appliedVersion) return false;
+        seedStatsOnce(snap); // disk reads, outside the repository lock
+        synchronized (this) {
+            if (snap.version <= appliedVersion) return false; // a newer one won meanwhile
+            long t0 = System.nanoTime();
+            Trace.beginSection("rates:publish");
+            try {
+                appliedVersion = snap.version;
+                Log.d(TAG, "publish v" + snap.version + " items=" + snap.items.size());
+                stats.add(snap.fetchedAt, snap.items); // O(currencies); no-op if history had it
+                // Posting under the lock keeps two racing publishes in version order
+                applyParsed(snap.toParseResult());
+                _version.postValue(snap.version);
+            } finally {
+                Trace.endSection();
+            }
+            Metrics.PUBLISH_TIME.recordNanos(System.nanoTime() - t0);
+            return true;
+        }
+    }
+
+    /**
+     * Make sure at least {@code version} is applied, reading the snapshot file off the
+     * calling thread if it is not. {@code 0} means "anything": load only if nothing is shown.
+     */
+    public void ensureVersion(long version) {
+        if (appliedVersion > 0 && version <= appliedVersion) return; // lock-free: UI thread
+        try {
+            disk.execute(() -> {
+                if (appliedVersion > 0 && version <= appliedVersion) return; // published meanwhile
+                try {
+                    publish(store.read());
+                } catch (Exception e) {
+                    Log.e(TAG, "snapshot read failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "disk pool saturated, snapshot load skipped", e); // next resume retries
+        }
+    }
+
+    private static RateItem[] index(List<RateItem> items) {
+        RateItem[] a = new RateItem[CurrencyRegistry.size()];
+        for (RateItem it : items) {
+            if (it.ordinal >= 0 && it.ordinal < a.length && a[it.ordinal] == null) a[it.ordinal] = it;
+        }
+        return a;
+    }
+
+    // Past points for the currencies in the feed, so windows are full right after a cold start.
+    // Must run before the first stats.add: RollingStats ignores points older than its newest.
+    // A racing publish waits here (on a background thread) until the seed is in.
+    private void seedStatsOnce(RatesSnapshot snap) {
+        synchronized (seedLock) {
+            if (statsSeeded) return;
+            statsSeeded = true;
+            seedStats(snap);
+        }
+    }
+
+    private void seedStats(RatesSnapshot snap) {
+        long from = snap.fetchedAt - RollingStats.Window.D30.millis;
+        try {
+            for (RateItem it : snap.items) {
+                HistoryStore.Series s = history.range(it.code, from, Long.MAX_VALUE);
+                stats.addSeries(it.code, s.times, s.values);
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "history read failed; stats start empty", e);
+        }
+    }
 
     /** Apply a parsed result coming from a worker thread (thread-safe). */
-    public void applyParsed(ParseResult pr) {
+    public synchronized void applyParsed(ParseResult pr) {
         if (pr == null) {
             _error.postValue("No parse result");
             _loading.postValue(false);
@@ -61,8 +221,17 @@ public class CurrencyRepository {
             _error.postValue(null);
         }
 
-        // Rates list
-        _rates.postValue(items);
+        // Rates list: only re-posted when something in it actually moved
+        RatesDelta delta = RatesDelta.between(current, items);
+        Log.d(TAG, "applyParsed: delta " + delta);
+        if (!delta.isEmpty()) {
+            current = Collections.unmodifiableList(items);
+            byOrdinal = index(items);
+            crossRates = CrossRateEngine.of(items);
+            converter = new BatchConverter(items);
+            _rates.postValue(current);
+            _changes.postValue(delta);
+        }
 
         // Show the fetch/apply time so the UI updates every refresh cycle
         _lastUpdated.postValue(RFC822_UTC.format(ZonedDateTime.now(ZoneOffset.UTC)));
@@ -81,22 +250,4 @@ public class CurrencyRepository {
     public void setUpdatedNow() {
         _lastUpdated.postValue(RFC822_UTC.format(ZonedDateTime.now(ZoneOffset.UTC)));
     }
-
-    /**
-     * Legacy helper: if you still receive raw RSS xml as a String, parse it here.
-     * Safe to call from any thread.
-     */
-    public void updateFromRssString(String rss) {
-        try {
-            setLoading(true);
-            ParseResult pr = RatesParser.parse(rss);   // assumes your existing parser
-            Log.d(TAG, "updateFromRssString -> parsed items=" +
-                    (pr.items == null ? 0 : pr.items.size()));
-            applyParsed(pr);
-        } catch (Exception e) {
-            Log.e(TAG, "updateFromRssString parse error", e);
-            setError("Parse error: " + e.getMessage());
-            setLoading(false);
-        }
-    }
 }
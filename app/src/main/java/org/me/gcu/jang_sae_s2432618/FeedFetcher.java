@@ -0,0 +1,201 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Trace;
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * The one place the app downloads the feed, shared by MainActivity (via RatesViewModel)
+ * and FetchRssWorker.
+ *
+ * Concurrent fetches of the same URL and base are coalesced: the first caller starts the download,
+ * later callers get the same in-flight future, and everyone receives the same Result.
+ * Requests are conditional on the validators of the feed we have persisted, so a 304 means
+ * "what you already have is current".
+ */
+public final class FeedFetcher {
+
+    private static final String TAG = "FeedFetcher";
+
+    /** Where the validators of the persisted feed live. */
+    public interface ValidatorStore {
+        /** Validators to send for {@code url}; NONE for a feed whose body we do not keep. */
+        FeedHttp.Validators load(String url);
+    }
+
+    /** Outcome of one download, shared by every caller that joined it. */
+    public static final class Result {
+        public final int code;
+        public final ParseResult parsed;            // null when not modified
+        public final FeedHttp.Validators validators;
+        public final long wireBytes;
+        public final long bodyBytes;
+        public final long bodyHash;                 // FNV-1a 64 of the decompressed body
+
+        Result(int code, ParseResult parsed, FeedHttp.Validators validators,
+               long wireBytes, long bodyBytes, long bodyHash) {
+            this.code = code;
+            this.parsed = parsed;
+            this.validators = validators;
+            this.wireBytes = wireBytes;
+            this.bodyBytes = bodyBytes;
+            this.bodyHash = bodyHash;
+        }
+
+        public boolean isNotModified() { return parsed == null; }
+    }
+
+    private static volatile FeedFetcher instance;
+
+    /** Process-wide instance backed by the worker's SharedPreferences. */
+    public static FeedFetcher get(Context context) {
+        if (instance == null) {
+            synchronized (FeedFetcher.class) {
+                if (instance == null) {
+                    SharedPreferences sp = context.getApplicationContext()
+                            .getSharedPreferences(FetchRssWorker.PREFS, Context.MODE_PRIVATE);
+                    SnapshotStore snapshot = SnapshotStore.get(context);
+                    instance = new FeedFetcher(url -> {
+                        // Only the primary feed's rates are stored, so only it can revalidate,
+                        // and only while we still hold the rates those validators belong to
+                        if (!FetchRssWorker.URL_SOURCE.equals(url)) return FeedHttp.Validators.NONE;
+                        try {
+                            if (snapshot.readHeader() == null) return FeedHttp.Validators.NONE;
+                        } catch (IOException e) {
+                            return FeedHttp.Validators.NONE;
+                        }
+                        return new FeedHttp.Validators(
+                                sp.getString(FetchRssWorker.KEY_ETAG, null),
+                                sp.getString(FetchRssWorker.KEY_LAST_MODIFIED, null));
+                    }, AppScheduler.get().executor(AppScheduler.Pool.NETWORK));
+                }
+            }
+        }
+        return instance;
+    }
+
+    private final ValidatorStore validators;
+    private final Executor executor;
+    // Keyed by base + " " + url: the base decides how the body is parsed
+    private final ConcurrentHashMap<String, CompletableFuture<Result>> inFlight =
+            new ConcurrentHashMap<>();
+    // Same keys: how to abort each download in flight
+    private final ConcurrentHashMap<String, FeedHttp.Cancel> cancels = new ConcurrentHashMap<>();
+
+    // Bytes after </rss> we read and hash; past this the body hash is not the whole body's
+    static final int MAX_TRAILER_BYTES = 64 * 1024;
+
+    FeedFetcher(ValidatorStore validators, Executor executor) {
+        this.validators = validators;
+        this.executor = executor;
+    }
+
+    /**
+     * Fetch and parse {@code url}, joining a download already in flight for it.
+     * Completes exceptionally with the IOException / XmlPullParserException on failure.
+     */
+    public CompletableFuture<Result> fetch(String url) {
+        return fetch(url, RatesParser.DEFAULT_BASE);
+    }
+
+    /** As {@link #fetch(String)}, for a feed that quotes against {@code base}. */
+    public CompletableFuture<Result> fetch(String url, String base) {
+        String key = base + " " + url;
+        CompletableFuture<Result> mine = new CompletableFuture<>();
+        CompletableFuture<Result> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            Log.d(TAG, "joining in-flight fetch of " + url);
+            return running;
+        }
+
+        FeedHttp.Cancel cancel = new FeedHttp.Cancel();
+        cancels.put(key, cancel);
+        Runnable task = () -> {
+            Result result = null;
+            Throwable failure = null;
+            try {
+                result = download(url, base, cancel);
+            } catch (Throwable t) {
+                failure = t;
+            }
+            // Leave the map before completing so callers after this point start a fresh download
+            cancels.remove(key, cancel);
+            inFlight.remove(key, mine);
+            if (failure != null) mine.completeExceptionally(failure);
+            else mine.complete(result);
+        };
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            cancels.remove(key, cancel);
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(e);
+        }
+        return mine;
+    }
+
+    /**
+     * Abort the download of {@code url} for {@code base}, if one is in flight: it fails with an
+     * IOException for every caller sharing it.
+     */
+    public void cancel(String url, String base) {
+        FeedHttp.Cancel c = cancels.get(base + " " + url);
+        if (c != null) c.cancel();
+    }
+
+    private Result download(String url, String base, FeedHttp.Cancel cancel) throws Exception {
+        long t0 = System.nanoTime();
+        Trace.beginSection("rates:fetch");
+        FeedHttp.Validators sent = validators.load(url);
+        try (FeedHttp.Response resp = FeedHttp.get(url, sent, cancel)) {
+            if (resp.isNotModified()) {
+                Metrics.FETCH_NOT_MODIFIED.inc();
+                // A 304 may carry new validators for the copy we hold; keep ours for the rest
+                return new Result(resp.code, null, sent.refreshedBy(resp.validators), 0, 0, 0);
+            }
+            if (!resp.isOk()) throw new IOException("HTTP " + resp.code);
+
+            ParseResult parsed;
+            boolean whole = true;
+            try (InputStream in = resp.body()) {
+                Trace.beginSection("rates:parse");
+                try {
+                    parsed = RatesParser.parse(in, null, null, base);
+                } finally {
+                    Trace.endSection();
+                }
+                // The parser stops at </rss>; hash whatever trails it too, up to a cap
+                byte[] rest = new byte[1024];
+                long trailer = 0;
+                for (int n; (n = in.read(rest)) >= 0; ) {
+                    if ((trailer += n) > MAX_TRAILER_BYTES) {
+                        whole = false;
+                        break;
+                    }
+                }
+            }
+            Log.d(TAG, "fetched " + resp.encoding + " wire=" + resp.wireBytes()
+                    + "B body=" + resp.decodedBytes() + "B items=" + parsed.items.size());
+            Metrics.FETCH_TIME.recordNanos(System.nanoTime() - t0);
+            Metrics.FETCH_WIRE_BYTES.record(resp.wireBytes());
+            // Cut short: hash the rates instead, which no body hash matches, so the body counts
+            // as changed (once; the same rates hash the same next time)
+            long hash = whole ? resp.bodyHash() : RatesSnapshot.hashOf(parsed.items);
+            return new Result(resp.code, parsed, resp.validators,
+                    resp.wireBytes(), resp.decodedBytes(), hash);
+        } catch (Exception e) {
+            Metrics.FETCH_ERRORS.inc();
+            throw e;
+        } finally {
+            Trace.endSection();
+        }
+    }
+}
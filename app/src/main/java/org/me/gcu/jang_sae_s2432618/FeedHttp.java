@@ -0,0 +1,251 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Plain HttpURLConnection GET for the RSS feed, with conditional-request support.
+ * Pass the validators of the copy you already hold; a 304 means it is still current
+ * and no body is sent.
+ *
+ * Asks for gzip/deflate and decompresses while the body is read. Setting Accept-Encoding
+ * ourselves switches off the platform's transparent gzip, so this behaves the same on
+ * Android and on the JVM (tests) and lets us count bytes on the wire.
+ *
+ * The decompressed body is hashed as it streams past, so callers can tell whether the feed
+ * changed by comparing one long instead of keeping the previous body around.
+ */
+public final class FeedHttp {
+    private FeedHttp() {}
+
+    public static final int CONNECT_TIMEOUT_MS = 10_000;
+    public static final int READ_TIMEOUT_MS    = 10_000;
+    public static final String USER_AGENT      = "Mozilla/5.0 (Android; CurrencyApp/1.0)";
+
+    /** Cache validators (ETag / Last-Modified) returned with a previous 200. */
+    public static final class Validators {
+        public static final Validators NONE = new Validators(null, null);
+
+        public final String etag;
+        public final String lastModified;
+
+        public Validators(String etag, String lastModified) {
+            this.etag = emptyToNull(etag);
+            this.lastModified = emptyToNull(lastModified);
+        }
+
+        public boolean isEmpty() { return etag == null && lastModified == null; }
+
+        /** These, with whichever fields {@code fresh} carries (e.g. from a 304) replacing ours. */
+        public Validators refreshedBy(Validators fresh) {
+            if (fresh.isEmpty()) return this;
+            return new Validators(fresh.etag != null ? fresh.etag : etag,
+                    fresh.lastModified != null ? fresh.lastModified : lastModified);
+        }
+    }
+
+    /**
+     * Lets another thread abort a {@link #get} while it connects, waits for the response or
+     * reads the body: the connection is dropped and the blocked call throws an IOException.
+     */
+    public static final class Cancel {
+        private volatile HttpURLConnection conn;
+        private volatile boolean cancelled;
+
+        public void cancel() {
+            cancelled = true;
+            HttpURLConnection c = conn;
+            if (c != null) c.disconnect();
+        }
+
+        public boolean isCancelled() { return cancelled; }
+
+        // Set before cancelled is checked, so a racing cancel() sees one or the other
+        void attach(HttpURLConnection c) throws IOException {
+            conn = c;
+            if (cancelled) throw new IOException("cancelled");
+        }
+    }
+
+    /** An open response; close it to release the connection. */
+    public static final class Response implements Closeable {
+        public final int code;
+        public final Validators validators;
+        /** Content-Encoding as sent by the server ("identity" if none). */
+        public final String encoding;
+        private final HttpURLConnection conn;
+
+        private CountingInputStream wire;
+        private HashingInputStream decoded;
+
+        Response(HttpURLConnection conn) throws IOException {
+            this.conn = conn;
+            this.code = conn.getResponseCode();
+            this.validators = new Validators(
+                    conn.getHeaderField("ETag"), conn.getHeaderField("Last-Modified"));
+            String enc = conn.getContentEncoding();
+            this.encoding = (enc == null) ? "identity" : enc.trim().toLowerCase(Locale.ROOT);
+        }
+
+        public boolean isOk()          { return code == HttpURLConnection.HTTP_OK; }
+        public boolean isNotModified() { return code == HttpURLConnection.HTTP_NOT_MODIFIED; }
+
+        /** Decompressed response body; only valid when {@link #isOk()}. */
+        public InputStream body() throws IOException {
+            if (decoded == null) {
+                wire = new CountingInputStream(conn.getInputStream());
+                decoded = new HashingInputStream(decode(wire, encoding));
+            }
+            return decoded;
+        }
+
+        /** Bytes read off the connection so far (compressed size). */
+        public long wireBytes()    { return wire == null ? 0 : wire.count; }
+
+        /** Bytes handed to the caller so far (decompressed size). */
+        public long decodedBytes() { return decoded == null ? 0 : decoded.count; }
+
+        /** FNV-1a 64 of the decompressed bytes read so far; read to EOF for the whole body. */
+        public long bodyHash() {
+            return decoded == null ? HashingInputStream.FNV_OFFSET : decoded.hash;
+        }
+
+        @Override
+        public void close() { conn.disconnect(); }
+    }
+
+    /** GET {@code url}, sending If-None-Match / If-Modified-Since from {@code cached}. */
+    public static Response get(String url, Validators cached) throws IOException {
+        return get(url, cached, null);
+    }
+
+    /** As {@link #get(String, Validators)}, abortable through {@code cancel} (may be null). */
+    public static Response get(String url, Validators cached, Cancel cancel) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+        try {
+            if (cancel != null) cancel.attach(conn);
+            conn.setRequestMethod("GET");
+            conn.setInstanceFollowRedirects(true);
+            conn.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            conn.setReadTimeout(READ_TIMEOUT_MS);
+            conn.setUseCaches(false); // we do our own revalidation
+            conn.setRequestProperty("User-Agent", USER_AGENT);
+            conn.setRequestProperty("Accept-Encoding", "gzip, deflate");
+            if (cached != null) {
+                if (cached.etag != null) conn.setRequestProperty("If-None-Match", cached.etag);
+                if (cached.lastModified != null) {
+                    conn.setRequestProperty("If-Modified-Since", cached.lastModified);
+                }
+            }
+            return new Response(conn);
+        } catch (IOException | RuntimeException e) {
+            conn.disconnect();
+            throw e;
+        }
+    }
+
+    private static InputStream decode(InputStream in, String encoding) throws IOException {
+        switch (encoding) {
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(in, 8 * 1024);
+            case "deflate":
+                return inflate(in);
+            default:
+                return in;
+        }
+    }
+
+    /** "deflate" is zlib-wrapped per the spec, but some servers send raw deflate: sniff it. */
+    private static InputStream inflate(InputStream in) throws IOException {
+        BufferedInputStream b = new BufferedInputStream(in, 8 * 1024);
+        b.mark(2);
+        int cmf = b.read(), flg = b.read();
+        b.reset();
+        boolean zlib = cmf >= 0 && flg >= 0
+                && (cmf & 0x0F) == 8 && ((cmf << 8) | flg) % 31 == 0;
+        return new InflaterInputStream(b, new Inflater(!zlib), 8 * 1024);
+    }
+
+    /** Counts bytes as they pass through. */
+    static class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) { super(in); }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            int n = super.read(buf, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long k = super.skip(n);
+            count += k;
+            return k;
+        }
+
+        @Override public boolean markSupported() { return false; }
+    }
+
+    /** Counts and FNV-1a hashes bytes as they pass through. */
+    static final class HashingInputStream extends CountingInputStream {
+        static final long FNV_OFFSET = 0xcbf29ce484222325L;
+        private static final long FNV_PRIME = 0x100000001b3L;
+
+        long hash = FNV_OFFSET;
+
+        HashingInputStream(InputStream in) { super(in); }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) hash = (hash ^ b) * FNV_PRIME;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            int n = super.read(buf, off, len);
+            long h = hash;
+            for (int i = 0; i < n; i++) h = (h ^ (buf[off + i] & 0xFF)) * FNV_PRIME;
+            hash = h;
+            return n;
+        }
+
+        // Skipped bytes still have to be hashed
+        @Override
+        public long skip(long n) throws IOException {
+            byte[] buf = new byte[(int) Math.min(n, 4096)];
+            long done = 0;
+            while (done < n) {
+                int k = read(buf, 0, (int) Math.min(buf.length, n - done));
+                if (k < 0) break;
+                done += k;
+            }
+            return done;
+        }
+    }
+
+    private static String emptyToNull(String s) {
+        return (s == null || s.trim().isEmpty()) ? null : s.trim();
+    }
+}
@@ -2,6 +2,7 @@ package org.me.gcu.jang_sae_s2432618;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.work.Constraints;
@@ -9,20 +10,33 @@ import androidx.work.NetworkType;
 import androidx.work.Worker;
 import androidx.work.WorkerParameters;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class FetchRssWorker extends Worker {
 
+    private static final String TAG = "FetchRssWorker";
+
     // SharedPreferences keys (must match MainActivity listener)
     public static final String PREFS        = "rss_prefs";
-    public static final String KEY_RSS      = "rss_text";
     public static final String KEY_FETCH_TS = "rss_fetch_time";
-
-    private static final String URL_SOURCE  = "https://www.fx-exchange.com/gbp/rss.xml";
+    // Version of the rates in SnapshotStore; changes only when the rates do
+    public static final String KEY_SNAPSHOT_VERSION = "rss_snapshot_version";
+    // Legacy raw-XML blob, superseded by SnapshotStore (removed on the next run)
+    public static final String KEY_RSS      = "rss_text";
+    // HTTP cache validators of the stored snapshot
+    public static final String KEY_ETAG          = "rss_etag";
+    public static final String KEY_LAST_MODIFIED = "rss_last_modified";
+    // When HistoryStore was last compacted
+    static final String KEY_HISTORY_COMPACTED_AT = "history_compacted_at";
+    private static final long COMPACT_EVERY_MS = 24L * 60 * 60 * 1000;
+    private static final Object PERSIST_LOCK = new Object();
+
+    // Primary (GBP) feed; its rates are authoritative and its validators are kept
+    public static final String URL_SOURCE   = "https://www.fx-exchange.com/gbp/rss.xml";
+    // Comma-separated base currencies to fetch alongside it (MultiFeedFetcher.DEFAULT_BASES)
+    public static final String KEY_FEED_BASES = "feed_bases";
 
     public FetchRssWorker(@NonNull Context context, @NonNull WorkerParameters params) {
         super(context, params);
@@ -31,62 +45,126 @@ public class FetchRssWorker extends Worker {
     @NonNull
     @Override
     public Result doWork() {
-        HttpURLConnection conn = null;
-        try {
-            URL url = new URL(URL_SOURCE);
-            conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setInstanceFollowRedirects(true);
-            conn.setConnectTimeout(10_000);
-            conn.setReadTimeout(10_000);
-            conn.setRequestProperty("User-Agent", "Mozilla/5.0 (Android; CurrencyApp/1.0)");
-
-            int code = conn.getResponseCode();
-            if (code != HttpURLConnection.HTTP_OK) {
+        SharedPreferences sp = getApplicationContext()
+                .getSharedPreferences(PREFS, Context.MODE_PRIVATE);
 
+        FeedFetcher.Result res;
+        try {
+            // All configured feeds in parallel; joins the activity's downloads if running
+            Context ctx = getApplicationContext();
+            MultiFeedFetcher multi = MultiFeedFetcher.get(ctx);
+            List<MultiFeedFetcher.Source> sources = MultiFeedFetcher.configured(ctx);
+            MultiFeedFetcher.Merged merged = multi.fetchAll(sources)
+                    .get(multi.deadlineMs(sources.size()), TimeUnit.MILLISECONDS);
+            res = merged.toPivotResult();
+            if (res == null) {
+                Log.w(TAG, "every feed failed", merged.error());
                 return Result.retry();
             }
+        } catch (Exception e) {
+            Log.w(TAG, "fetch failed", e);
+            return Result.retry();
+        }
 
-            StringBuilder sb = new StringBuilder();
-            try (BufferedReader in = new BufferedReader(
-                    new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = in.readLine()) != null) sb.append(line).append('\n');
-            }
+        if (res.isNotModified()) {
+            // Stored feed is current: nothing to read, compare or rewrite.
+            // Still bump the fetch timestamp so listeners fire every run.
+            SharedPreferences.Editor ed = sp.edit();
+            putValidators(ed, res.validators);
+            ed.putLong(KEY_FETCH_TS, System.currentTimeMillis()).apply();
+            return Result.success();
+        }
 
-            // Trim to a clean XML block
-            String rss = sb.toString();
-            if (rss != null && !rss.isEmpty()) {
-                int i = rss.indexOf("<?xml");
-                if (i >= 0) rss = rss.substring(i);
-                int end = rss.indexOf("</rss>");
-                if (end > 0) rss = rss.substring(0, end + 6);
-                rss = rss.trim();
+        if (res.parsed.items.isEmpty()) return Result.retry();
+
+        try {
+            persist(getApplicationContext(), res);
+        } catch (IOException e) {
+            Log.w(TAG, "snapshot write failed", e);
+            return Result.retry();
+        }
+        return Result.success();
+    }
+
+    /**
+     * Store a fresh 200 result and hand it to CurrencyRepository: the rates snapshot
+     * (rewritten, with a new version, only if its content changed), the HTTP validators that
+     * go with it, and the prefs keys listeners watch.
+     * Used by this worker and by RatesViewModel's foreground refresh.
+     */
+    static RatesSnapshot persist(Context context, FeedFetcher.Result res) throws IOException {
+        // The worker and a foreground refresh can persist the same result at once: one at a
+        // time, so the second sees the first's header and does not write or record it again
+        synchronized (PERSIST_LOCK) {
+            RatesSnapshot snap =
+                    RatesSnapshot.of(res.parsed, System.currentTimeMillis(), res.bodyHash);
+            SnapshotStore store = SnapshotStore.get(context);
+            // O(1) change check: body hash vs the one in the stored header
+            SnapshotStore.Header prev = store.readHeader();
+            boolean changed = prev == null || prev.contentHash != snap.contentHash;
+            if (changed) {
+                // Wall-clock floor keeps versions increasing even if the file was wiped
+                long prevVersion = (prev == null) ? 0 : prev.version;
+                snap = snap.withVersion(Math.max(prevVersion + 1, snap.fetchedAt));
+                store.write(snap);
             } else {
-                return Result.retry();
+                snap = snap.withVersion(prev.version);
             }
+            if (changed) recordHistory(context, snap);
+            // In-process consumers get the parsed rates directly; no-op if already shown
+            CurrencyRepository.get(context).publish(snap);
 
-            // Write to SharedPreferences
-            SharedPreferences sp = getApplicationContext()
+            SharedPreferences sp = context.getApplicationContext()
                     .getSharedPreferences(PREFS, Context.MODE_PRIVATE);
             SharedPreferences.Editor ed = sp.edit();
+            if (sp.contains(KEY_RSS)) ed.remove(KEY_RSS);
 
-            // Only update the RSS text if changed
-            String old = sp.getString(KEY_RSS, "");
-            if (!rss.equals(old)) {
-                ed.putString(KEY_RSS, rss);
-            }
+            // Listeners in other processes reload the snapshot when this changes
+            if (changed) ed.putLong(KEY_SNAPSHOT_VERSION, snap.version);
+
+            // Validators always describe the rates we now hold
+            putValidators(ed, res.validators);
 
             // Always bump fetch timestamp so listeners fire every run
-            ed.putLong(KEY_FETCH_TS, System.currentTimeMillis());
+            ed.putLong(KEY_FETCH_TS, snap.fetchedAt);
 
             ed.apply();
-            return Result.success();
+            return snap;
+        }
+    }
 
-        } catch (Exception e) {
-            return Result.retry();
-        } finally {
-            if (conn != null) conn.disconnect();
+    /** Store the validators a 304 refreshed (FeedFetcher merges them with the ones sent). */
+    static void keepValidators(Context context, FeedHttp.Validators v) {
+        if (v.isEmpty()) return;
+        SharedPreferences.Editor ed = context.getApplicationContext()
+                .getSharedPreferences(PREFS, Context.MODE_PRIVATE).edit();
+        putValidators(ed, v);
+        ed.apply();
+    }
+
+    private static void putValidators(SharedPreferences.Editor ed, FeedHttp.Validators v) {
+        ed.putString(KEY_ETAG, v.etag);
+        ed.putString(KEY_LAST_MODIFIED, v.lastModified);
+    }
+
+    /**
+     * Append a distinct feed to the rate history and, at most once a day, downsample old rows.
+     * History is best effort: a failure here never fails the refresh.
+     */
+    private static void recordHistory(Context context, RatesSnapshot snap) {
+        HistoryStore history = HistoryStore.get(context);
+        try {
+            history.append(snap.fetchedAt, snap.items);
+            SharedPreferences sp = context.getApplicationContext()
+                    .getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+            long last = sp.getLong(KEY_HISTORY_COMPACTED_AT, 0L);
+            if (snap.fetchedAt - last >= COMPACT_EVERY_MS) {
+                int removed = history.compactOld(snap.fetchedAt);
+                Log.d(TAG, "history compacted, " + removed + " rows merged");
+                sp.edit().putLong(KEY_HISTORY_COMPACTED_AT, snap.fetchedAt).apply();
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "history write failed", e);
         }
     }
 
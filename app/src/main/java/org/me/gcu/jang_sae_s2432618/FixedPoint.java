@@ -0,0 +1,197 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Decimal arithmetic on scaled longs ({@code unscaled / 10^scale}), for money and rates.
+ *
+ * Conversions round once, HALF_UP, to the target scale. They run on longs and fall back to
+ * BigDecimal only when an intermediate product would overflow, so results always match
+ * {@code amount × to ÷ from} computed exactly.
+ */
+public final class FixedPoint {
+    private FixedPoint() {}
+
+    /** Returned by conversions whose result does not fit a long at the requested scale. */
+    public static final long OVERFLOW = Long.MIN_VALUE;
+
+    private static final long[] POW10 = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+            10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L,
+            10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+
+    /** An exact decimal {@code unscaled × 10^-scale}. */
+    public static final class Value {
+        public final long unscaled;
+        public final int scale;
+
+        public Value(long unscaled, int scale) {
+            this.unscaled = unscaled;
+            this.scale = scale;
+        }
+
+        public BigDecimal toBigDecimal() { return BigDecimal.valueOf(unscaled, scale); }
+
+        @Override
+        public String toString() { return toPlainString(unscaled, scale); }
+    }
+
+    /**
+     * Parse "1234", "1234.5" or "1234,5" (optionally signed). Null if it is not such a number
+     * or does not fit a long.
+     */
+    public static Value parse(CharSequence s) {
+        int n = s.length(), i = 0;
+        if (n == 0) return null;
+        boolean neg = false;
+        if (s.charAt(0) == '-' || s.charAt(0) == '+') {
+            neg = s.charAt(0) == '-';
+            i = 1;
+        }
+        long v = 0;
+        int scale = -1, digits = 0;
+        boolean any = false;
+        for (; i < n; i++) {
+            char c = s.charAt(i);
+            if ((c == '.' || c == ',') && scale < 0) { scale = 0; continue; }
+            if (c < '0' || c > '9') return null;
+            if (digits == 18) return parseSlow(s); // could overflow: let BigDecimal decide
+            v = v * 10 + (c - '0');
+            if (v != 0) digits++;
+            if (scale >= 0) scale++;
+            any = true;
+        }
+        if (!any) return null;
+        return new Value(neg ? -v : v, Math.max(scale, 0));
+    }
+
+    private static Value parseSlow(CharSequence s) {
+        try {
+            return of(new BigDecimal(s.toString().replace(',', '.')));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Beyond these, BigDecimal work on the value (10^scale) gets slow and no result would fit
+    private static final int MAX_SCALE = 40, MAX_INT_DIGITS = 40;
+
+    /**
+     * {@code bd} as a Value, trailing zeros dropped; null if it is too large (its digits do
+     * not fit a long, or it has over 40 integer digits). Digits past 40 dp are rounded HALF_UP.
+     */
+    public static Value of(BigDecimal bd) {
+        bd = bd.stripTrailingZeros();
+        if (bd.precision() - bd.scale() > MAX_INT_DIGITS) return null;
+        if (bd.precision() - bd.scale() < -MAX_SCALE) return new Value(0, MAX_SCALE); // rounds to 0
+        if (bd.scale() > MAX_SCALE) bd = bd.setScale(MAX_SCALE, RoundingMode.HALF_UP);
+        if (bd.scale() < 0) bd = bd.setScale(0);
+        if (bd.unscaledValue().bitLength() > 63) return null;
+        return new Value(bd.unscaledValue().longValue(), bd.scale());
+    }
+
+    /**
+     * Exact decimal digits of a double as shown by Double.toString (feed rates round-trip);
+     * null if they do not fit (see {@link #of}), e.g. 1e20.
+     */
+    public static Value ofDouble(double d) {
+        return of(BigDecimal.valueOf(d));
+    }
+
+    /** Nearest double to {@code unscaled × 10^-scale}, as Double.parseDouble would give. */
+    public static double toDouble(long unscaled, int scale) {
+        if (scale >= 0 && scale < DOUBLE_POW10.length && Math.abs(unscaled) < (1L << 53)) {
+            // both operands exact, so one division rounds like parseDouble
+            return unscaled / DOUBLE_POW10[scale];
+        }
+        return Double.parseDouble(unscaled + "E" + (-scale));
+    }
+
+    private static final double[] DOUBLE_POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * {@code amount × to ÷ from}, rounded HALF_UP to {@code scale} and returned unscaled.
+     * With {@code from = 1} this is a plain multiplication, with {@code to = 1} a division.
+     * Returns {@link #OVERFLOW} if the result itself does not fit; throws
+     * ArithmeticException if {@code from} is zero.
+     */
+    public static long convert(long amountU, int amountS, long toU, int toS,
+                               long fromU, int fromS, int scale) {
+        if (fromU == 0) throw new ArithmeticException("/ by zero");
+        // amount × to has scale amountS + toS; dividing by from adds -fromS
+        int shift = scale - (amountS + toS - fromS);
+        if (shift < POW10.length && -shift < POW10.length) {
+            long n = amountU * toU;
+            boolean ok = Math.multiplyHigh(amountU, toU) == (n >> 63);
+            long d = fromU;
+            if (shift >= 0) {
+                long p = pow10(shift);
+                ok &= Math.multiplyHigh(n, p) == ((n * p) >> 63);
+                n *= p;
+            } else {
+                long p = pow10(-shift);
+                ok &= Math.multiplyHigh(d, p) == ((d * p) >> 63);
+                d *= p;
+            }
+            // Checked without exceptions: overflow is rare but must stay cheap in batches
+            if (ok && n != Long.MIN_VALUE && d != Long.MIN_VALUE) return divideHalfUp(n, d);
+        }
+        return convertSlow(amountU, amountS, toU, toS, fromU, fromS, scale);
+    }
+
+    static long convertSlow(long amountU, int amountS, long toU, int toS,
+                            long fromU, int fromS, int scale) {
+        BigDecimal r = BigDecimal.valueOf(amountU, amountS)
+                .multiply(BigDecimal.valueOf(toU, toS))
+                .divide(BigDecimal.valueOf(fromU, fromS), scale, RoundingMode.HALF_UP);
+        try {
+            return r.unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            return OVERFLOW;
+        }
+    }
+
+    /** n / d rounded half away from zero. */
+    static long divideHalfUp(long n, long d) {
+        if (d == 0) throw new ArithmeticException("/ by zero");
+        long q = n / d, r = n % d;
+        if (r != 0) {
+            long ar = Math.abs(r), ad = Math.abs(d);
+            if (ar >= ad - ar) q += ((n < 0) == (d < 0)) ? 1 : -1;
+        }
+        return q;
+    }
+
+    static long pow10(int e) {
+        if (e >= POW10.length) throw new ArithmeticException("10^" + e);
+        return POW10[e];
+    }
+
+    /** "-12.30" style text, without going through BigDecimal or String.format. */
+    public static String toPlainString(long unscaled, int scale) {
+        if (unscaled == OVERFLOW) return "—";
+        StringBuilder sb = new StringBuilder(24);
+        if (unscaled < 0) sb.append('-');
+        String digits = Long.toString(Math.abs(unscaled));
+        if (scale <= 0) {
+            sb.append(digits);
+            for (int i = 0; i < -scale; i++) sb.append('0');
+            return sb.toString();
+        }
+        int intLen = digits.length() - scale;
+        if (intLen <= 0) {
+            sb.append("0.");
+            for (int i = 0; i < -intLen; i++) sb.append('0');
+            sb.append(digits);
+        } else {
+            sb.append(digits, 0, intLen).append('.').append(digits, intLen, digits.length());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,372 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import android.content.Context;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only, columnar history of every distinct feed: one row per fetch.
+ *
+ * Files in the history directory (big-endian):
+ * <pre>
+ *   ts.bin     int magic 'RHTS', short format, then one long per row (fetch time, ascending)
+ *   XXX.col    int magic 'RHCL', short format, int firstRow, then one double per row
+ *              from firstRow on (GBP -> XXX; NaN where the feed had no rate)
+ * </pre>
+ * ts.bin is the commit point: columns are appended first, and anything past the last
+ * committed row is ignored and overwritten by the next append. Values that are not positive
+ * read as gaps, so a torn column write can never show up as a rate.
+ *
+ * Queries binary-search the mapped ts.bin and read one column slice straight into primitive
+ * arrays. {@link #compact} downsamples old rows into buckets, rewriting the directory in a
+ * sibling and swapping it in.
+ */
+public final class HistoryStore {
+
+    public static final String DIR_NAME = "history";
+
+    private static final int   TS_MAGIC  = 0x52485453; // "RHTS"
+    private static final int   COL_MAGIC = 0x5248434C; // "RHCL"
+    private static final short FORMAT    = 1;
+    private static final int   TS_HEADER  = 4 + 2;
+    private static final int   COL_HEADER = 4 + 2 + 4;
+    private static final String TS_FILE = "ts.bin";
+    private static final String COL_EXT = ".col";
+
+    private static final long HOUR_MS = 60L * 60 * 1000;
+    private static final long DAY_MS  = 24 * HOUR_MS;
+
+    /** Points of one currency in time order; arrays are exactly {@link #size()} long. */
+    public static final class Series {
+        public static final Series EMPTY = new Series(new long[0], new double[0]);
+
+        public final long[] times;
+        public final double[] values;
+
+        Series(long[] times, double[] values) {
+            this.times = times;
+            this.values = values;
+        }
+
+        public int size() { return times.length; }
+    }
+
+    private static volatile HistoryStore instance;
+
+    /** The app's history under getFilesDir(); one instance per process. */
+    public static HistoryStore get(Context context) {
+        HistoryStore h = instance;
+        if (h == null) {
+            synchronized (HistoryStore.class) {
+                if ((h = instance) == null) {
+                    File files = context.getApplicationContext().getFilesDir();
+                    instance = h = new HistoryStore(new File(files, DIR_NAME));
+                }
+            }
+        }
+        return h;
+    }
+
+    private final File dir;
+
+    public HistoryStore(File dir) {
+        this.dir = dir;
+    }
+
+    /** Number of committed rows. */
+    public synchronized int rows() {
+        recover();
+        long len = new File(dir, TS_FILE).length();
+        return len < TS_HEADER ? 0 : (int) ((len - TS_HEADER) / 8);
+    }
+
+    /** Codes that have a column, in no particular order. */
+    public synchronized List<String> codes() {
+        recover();
+        return listCodes();
+    }
+
+    private List<String> listCodes() {
+        List<String> out = new ArrayList<>();
+        String[] names = dir.list();
+        if (names == null) return out;
+        for (String n : names) {
+            if (n.endsWith(COL_EXT) && isCode(n.substring(0, n.length() - COL_EXT.length()))) {
+                out.add(n.substring(0, 3));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Add one row at {@code time} holding every item's rate. Returns false (and writes
+     * nothing) unless {@code time} is after the last row.
+     */
+    public synchronized boolean append(long time, List<RateItem> items) throws IOException {
+        recover();
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("cannot create " + dir);
+        File tsFile = new File(dir, TS_FILE);
+        try (RandomAccessFile ts = new RandomAccessFile(tsFile, "rw")) {
+            int row = openTimes(ts);
+            if (row > 0) {
+                ts.seek(TS_HEADER + (row - 1) * 8L);
+                if (time <= ts.readLong()) return false;
+            }
+            for (RateItem it : items) {
+                if (isCode(it.code)) appendColumn(it.code, row, it.rate);
+            }
+            // Commit the row
+            ts.setLength(TS_HEADER + row * 8L);
+            ts.seek(TS_HEADER + row * 8L);
+            ts.writeLong(time);
+            ts.getFD().sync();
+        }
+        return true;
+    }
+
+    /** {@code code}'s rates with {@code from <= time <= to}, gaps left out. */
+    public synchronized Series range(String code, long from, long to) throws IOException {
+        recover();
+        if (!isCode(code) || from > to) return Series.EMPTY;
+        File col = column(code);
+        int rows = rows();
+        if (rows == 0 || !col.isFile()) return Series.EMPTY;
+
+        try (RandomAccessFile tsf = new RandomAccessFile(new File(dir, TS_FILE), "r");
+             RandomAccessFile cf = new RandomAccessFile(col, "r")) {
+            LongBuffer times = tsf.getChannel()
+                    .map(FileChannel.MapMode.READ_ONLY, TS_HEADER, rows * 8L).asLongBuffer();
+            int lo = lowerBound(times, rows, from);
+            int hi = lowerBound(times, rows, to == Long.MAX_VALUE ? to : to + 1);
+
+            if (cf.length() < COL_HEADER || cf.readInt() != COL_MAGIC || cf.readShort() != FORMAT) {
+                return Series.EMPTY;
+            }
+            int first = cf.readInt();
+            int stored = (int) Math.min((cf.length() - COL_HEADER) / 8, rows - (long) first);
+            int a = Math.max(lo, first), b = Math.min(hi, first + stored);
+            if (a >= b) return Series.EMPTY;
+
+            ByteBuffer raw = ByteBuffer.allocate((b - a) * 8);
+            FileChannel ch = cf.getChannel();
+            long pos = COL_HEADER + (long) (a - first) * 8;
+            while (raw.hasRemaining()) {
+                if (ch.read(raw, pos + raw.position()) < 0) break;
+            }
+            raw.flip();
+            DoubleBuffer vals = raw.asDoubleBuffer();
+
+            long[] t = new long[vals.remaining()];
+            double[] v = new double[vals.remaining()];
+            int n = 0;
+            for (int i = 0; i < t.length; i++) {
+                double x = vals.get(i);
+                if (x > 0 && x != Double.POSITIVE_INFINITY) {
+                    t[n] = times.get(a + i);
+                    v[n++] = x;
+                }
+            }
+            return new Series(Arrays.copyOf(t, n), Arrays.copyOf(v, n));
+        }
+    }
+
+    /**
+     * Merge every row older than {@code olderThan} into one row per {@code bucketMs}
+     * (aligned to the epoch): the bucket's last time, each currency's mean. Returns the
+     * number of rows removed. Rows already at or above that resolution are left alone.
+     */
+    public synchronized int compact(long olderThan, long bucketMs) throws IOException {
+        recover();
+        int rows = rows();
+        if (rows == 0) return 0;
+        long[] times = readTimes(rows);
+        int cut = lowerBound(LongBuffer.wrap(times), rows, olderThan);
+
+        // Old row -> new row
+        int[] map = new int[rows];
+        int next = -1;
+        long bucket = Long.MIN_VALUE;
+        for (int i = 0; i < rows; i++) {
+            long b = (i < cut) ? Math.floorDiv(times[i], bucketMs) : Long.MIN_VALUE;
+            if (i >= cut || b != bucket) next++;
+            bucket = b;
+            map[i] = next;
+        }
+        int newRows = next + 1;
+        if (newRows == rows) return 0;
+
+        File tmp = new File(dir.getPath() + ".tmp");
+        deleteTree(tmp);
+        if (!tmp.mkdirs()) throw new IOException("cannot create " + tmp);
+
+        for (String code : listCodes()) compactColumn(code, rows, map, newRows, tmp);
+
+        long[] newTimes = new long[newRows];
+        for (int i = 0; i < rows; i++) newTimes[map[i]] = times[i]; // last time wins
+        ByteBuffer buf = ByteBuffer.allocate(TS_HEADER + newRows * 8);
+        buf.putInt(TS_MAGIC).putShort(FORMAT);
+        for (long t : newTimes) buf.putLong(t);
+        writeFully(new File(tmp, TS_FILE), buf);
+
+        // Swap: history -> history.old, history.tmp -> history; recover() finishes a crash
+        File old = new File(dir.getPath() + ".old");
+        deleteTree(old);
+        if (!dir.renameTo(old)) throw new IOException("cannot move " + dir);
+        if (!tmp.renameTo(dir)) throw new IOException("cannot move " + tmp);
+        deleteTree(old);
+        return rows - newRows;
+    }
+
+    /**
+     * The app's retention policy: full resolution for a week, hourly to 90 days, daily
+     * after that. Returns the number of rows removed.
+     */
+    public int compactOld(long now) throws IOException {
+        return compact(now - 90 * DAY_MS, DAY_MS) + compact(now - 7 * DAY_MS, HOUR_MS);
+    }
+
+    // --- internals -----------------------------------------------------------------------------
+
+    private File column(String code) { return new File(dir, code + COL_EXT); }
+
+    // Column files are named after the code, so only plain ISO-style codes get one
+    private static boolean isCode(String s) {
+        if (s == null || s.length() != 3) return false;
+        for (int i = 0; i < 3; i++) {
+            char c = s.charAt(i);
+            if (c < 'A' || c > 'Z') return false;
+        }
+        return true;
+    }
+
+    // Valid header (written if the file is new or unreadable); returns the committed rows
+    private static int openTimes(RandomAccessFile ts) throws IOException {
+        if (ts.length() >= TS_HEADER) {
+            ts.seek(0);
+            if (ts.readInt() == TS_MAGIC && ts.readShort() == FORMAT) {
+                return (int) ((ts.length() - TS_HEADER) / 8);
+            }
+        }
+        ts.setLength(0);
+        ts.writeInt(TS_MAGIC);
+        ts.writeShort(FORMAT);
+        return 0;
+    }
+
+    private void appendColumn(String code, int row, double value) throws IOException {
+        try (RandomAccessFile f = new RandomAccessFile(column(code), "rw")) {
+            int first = -1;
+            if (f.length() >= COL_HEADER && f.readInt() == COL_MAGIC && f.readShort() == FORMAT) {
+                first = f.readInt();
+            }
+            if (first < 0 || first > row) { // new or unreadable: start it here
+                first = row;
+                f.setLength(0);
+                f.seek(0);
+                f.writeInt(COL_MAGIC);
+                f.writeShort(FORMAT);
+                f.writeInt(first);
+            }
+            // Rows this currency missed are NaN; anything past `row` is an uncommitted leftover
+            long have = Math.min((f.length() - COL_HEADER) / 8, row - first);
+            ByteBuffer buf = ByteBuffer.allocate((int) (row - first - have + 1) * 8);
+            for (long i = have; i < row - first; i++) buf.putDouble(Double.NaN);
+            buf.putDouble(value);
+            buf.flip();
+            FileChannel ch = f.getChannel();
+            long pos = COL_HEADER + have * 8;
+            ch.truncate(pos);
+            while (buf.hasRemaining()) ch.write(buf, pos + buf.position());
+        }
+    }
+
+    private void compactColumn(String code, int rows, int[] map, int newRows, File into)
+            throws IOException {
+        int first;
+        double[] vals;
+        try (RandomAccessFile f = new RandomAccessFile(column(code), "r")) {
+            if (f.length() < COL_HEADER || f.readInt() != COL_MAGIC || f.readShort() != FORMAT) return;
+            first = f.readInt();
+            int stored = (int) Math.max(0, Math.min((f.length() - COL_HEADER) / 8, rows - (long) first));
+            ByteBuffer raw = ByteBuffer.allocate(stored * 8);
+            FileChannel ch = f.getChannel();
+            while (raw.hasRemaining()) {
+                if (ch.read(raw, COL_HEADER + raw.position()) < 0) break;
+            }
+            raw.flip();
+            vals = new double[stored];
+            raw.asDoubleBuffer().get(vals);
+        }
+        if (vals.length == 0) return;
+
+        int newFirst = map[first];
+        int newLast = map[first + vals.length - 1];
+        double[] sum = new double[newLast - newFirst + 1];
+        int[] count = new int[sum.length];
+        for (int i = 0; i < vals.length; i++) {
+            double x = vals[i];
+            if (x > 0 && x != Double.POSITIVE_INFINITY) {
+                int r = map[first + i] - newFirst;
+                sum[r] += x;
+                count[r]++;
+            }
+        }
+        ByteBuffer buf = ByteBuffer.allocate(COL_HEADER + sum.length * 8);
+        buf.putInt(COL_MAGIC).putShort(FORMAT).putInt(newFirst);
+        for (int r = 0; r < sum.length; r++) buf.putDouble(count[r] == 0 ? Double.NaN : sum[r] / count[r]);
+        writeFully(new File(into, code + COL_EXT), buf);
+    }
+
+    private long[] readTimes(int rows) throws IOException {
+        try (RandomAccessFile ts = new RandomAccessFile(new File(dir, TS_FILE), "r")) {
+            long[] out = new long[rows];
+            ts.getChannel().map(FileChannel.MapMode.READ_ONLY, TS_HEADER, rows * 8L)
+                    .asLongBuffer().get(out);
+            return out;
+        }
+    }
+
+    /** First index in [0, n) whose time is >= t (n if none). */
+    private static int lowerBound(LongBuffer times, int n, long t) {
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (times.get(mid) < t) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static void writeFully(File f, ByteBuffer buf) throws IOException {
+        buf.flip();
+        try (FileOutputStream out = new FileOutputStream(f)) {
+            FileChannel ch = out.getChannel();
+            while (buf.hasRemaining()) ch.write(buf);
+            out.getFD().sync();
+        }
+    }
+
+    // Finish or undo a compaction that was interrupted mid-swap
+    private void recover() {
+        File old = new File(dir.getPath() + ".old");
+        if (!dir.exists() && old.isDirectory()) old.renameTo(dir);
+        if (dir.exists()) deleteTree(old);
+        deleteTree(new File(dir.getPath() + ".tmp"));
+    }
+
+    private static void deleteTree(File f) {
+        File[] kids = f.listFiles();
+        if (kids != null) for (File k : kids) deleteTree(k);
+        f.delete();
+    }
+}
@@ -3,11 +3,18 @@ package org.me.gcu.jang_sae_s2432618;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.os.Bundle;
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.view.inputmethod.InputMethodManager;
 import android.widget.TextView;
 
 import androidx.activity.OnBackPressedCallback;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.SearchView;
 import androidx.core.content.ContextCompat;
@@ -20,13 +27,26 @@ import androidx.work.WorkManager;
 
 import com.google.android.material.appbar.MaterialToolbar;
 
-import java.util.List;
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class MainActivity extends AppCompatActivity {
 
-    // RSS feed we use for the currency data
-    private static final String URL_SOURCE = "https://www.fx-exchange.com/gbp/rss.xml";
+    private static final String TAG = "MainActivity";
+
+    // True until the process's first MainActivity is created: only that one can be a cold start
+    private static boolean coldStart = true;
+    // A process this old at onCreate was started for something else (e.g. the worker)
+    private static final long COLD_START_MAX_AGE_MS = 5_000;
+    // The periodic worker is enqueued once per process, not on every onCreate
+    private static final AtomicBoolean periodicEnqueued = new AtomicBoolean();
+
+    private boolean measuringColdStart;
+    private boolean fullyDrawn;
 
     private RatesViewModel vm;
     private RatesAdapter adapter;
@@ -43,12 +63,27 @@ public class MainActivity extends AppCompatActivity {
     private SharedPreferences sp;
     private SharedPreferences.OnSharedPreferenceChangeListener spListener;
 
-    // remember last RSS we actually used so we don’t refresh for no reason
-    private String lastAppliedRss = "";
-
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        Trace.beginSection("startup:onCreate");
+        try {
+            create(savedInstanceState);
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * Startup order: views and observers, then the last-known rates from the snapshot file
+     * (read on the disk pool), so the first frame can already show them. WorkManager and the
+     * network refresh only start once that frame is drawn; reportFullyDrawn() follows when
+     * rates are on screen.
+     */
+    private void create(Bundle savedInstanceState) {
+        measuringColdStart = coldStart && SystemClock.uptimeMillis()
+                - Process.getStartUptimeMillis() < COLD_START_MAX_AGE_MS;
+        coldStart = false;
         setContentView(R.layout.activity_main);
 
         vf          = findViewById(R.id.vf);
@@ -91,20 +126,21 @@ public class MainActivity extends AppCompatActivity {
         // hook up live data from the view model
         observeViewModel();
 
-        // periodic background refresh (15 mins)
-        PeriodicWorkRequest req =
-                new PeriodicWorkRequest.Builder(FetchRssWorker.class, 15, TimeUnit.MINUTES)
-                        .setConstraints(FetchRssWorker.netConstraints())
-                        .build();
-
-        WorkManager.getInstance(this).enqueueUniquePeriodicWork(
-                "fetch_rss_periodic",
-                ExistingPeriodicWorkPolicy.UPDATE,
-                req
-        );
-
-        // first load from the network
-        fetchRssAndRefresh();
+        // last-known rates first (no parsing, no network)
+        vm.onSnapshotVersion(0L);
+
+        // first load from the network; after a rotation the ViewModel already has (or is
+        // still fetching) the data, and FeedFetcher would join that download anyway
+        final boolean refresh = savedInstanceState == null;
+        onFirstFrame(() -> {
+            if (measuringColdStart) {
+                long ttid = SystemClock.uptimeMillis() - Process.getStartUptimeMillis();
+                Metrics.STARTUP_TTID.record(ttid);
+                Log.i(TAG, "cold start: first frame after " + ttid + " ms");
+            }
+            enqueuePeriodicRefresh();
+            if (refresh) vm.refreshFromNetwork();
+        });
 
         // handle back button when we’re on converter screen
         getOnBackPressedDispatcher().addCallback(this, new OnBackPressedCallback(true) {
@@ -112,19 +148,71 @@ public class MainActivity extends AppCompatActivity {
         });
     }
 
+    // Runs `r` on the main thread right after this window's first frame has been drawn
+    private void onFirstFrame(Runnable r) {
+        View decor = getWindow().getDecorView();
+        decor.getViewTreeObserver().addOnDrawListener(new ViewTreeObserver.OnDrawListener() {
+            private boolean seen;
+
+            @Override
+            public void onDraw() {
+                if (seen) return;
+                seen = true;
+                ViewTreeObserver.OnDrawListener self = this;
+                // A draw listener can't be removed while drawing; this runs after the frame
+                decor.post(() -> {
+                    decor.getViewTreeObserver().removeOnDrawListener(self);
+                    r.run();
+                });
+            }
+        });
+    }
+
+    // periodic background refresh (15 mins); WorkManager initialises off the main thread
+    private void enqueuePeriodicRefresh() {
+        if (!periodicEnqueued.compareAndSet(false, true)) return;
+        Context app = getApplicationContext();
+        try {
+            AppScheduler.get().executor(AppScheduler.Pool.DISK).execute(() -> {
+                PeriodicWorkRequest req =
+                        new PeriodicWorkRequest.Builder(FetchRssWorker.class, 15, TimeUnit.MINUTES)
+                                .setConstraints(FetchRssWorker.netConstraints())
+                                .build();
+
+                WorkManager.getInstance(app).enqueueUniquePeriodicWork(
+                        "fetch_rss_periodic",
+                        ExistingPeriodicWorkPolicy.UPDATE,
+                        req
+                );
+            });
+        } catch (RejectedExecutionException e) {
+            periodicEnqueued.set(false); // the next onCreate tries again
+            Log.w(TAG, "disk pool saturated, periodic refresh not enqueued", e);
+        }
+    }
+
+    // Rates are on screen: tell the system (and our metrics) the start is complete
+    private void onRatesShown() {
+        if (fullyDrawn) return;
+        fullyDrawn = true;
+        reportFullyDrawn();
+        if (measuringColdStart) {
+            long ttfd = SystemClock.uptimeMillis() - Process.getStartUptimeMillis();
+            Metrics.STARTUP_TTFD.record(ttfd);
+            Log.i(TAG, "cold start: rates on screen after " + ttfd + " ms");
+        }
+    }
+
     @Override
     protected void onStart() {
         super.onStart();
         sp = getSharedPreferences(FetchRssWorker.PREFS, MODE_PRIVATE);
 
-        // listen for changes from the worker (new RSS or new timestamp)
+        // listen for changes from the worker (new rates snapshot or new timestamp)
         spListener = (prefs, key) -> {
-            if (FetchRssWorker.KEY_RSS.equals(key)) {
-                String newer = prefs.getString(FetchRssWorker.KEY_RSS, "");
-                if (newer != null && !newer.isEmpty() && !newer.equals(lastAppliedRss)) {
-                    vm.refreshFromRssAsync(newer);
-                    lastAppliedRss = newer;
-                }
+            if (FetchRssWorker.KEY_SNAPSHOT_VERSION.equals(key)) {
+                // only a version number: the repository reads the file if it lacks it
+                vm.onSnapshotVersion(prefs.getLong(key, 0L));
             } else if (FetchRssWorker.KEY_FETCH_TS.equals(key)) {
                 // worker ran again, just bump the “Updated:” text
                 runOnUiThread(vm::markRefreshedNow);
@@ -136,13 +224,8 @@ public class MainActivity extends AppCompatActivity {
     @Override
     protected void onResume() {
         super.onResume();
-        // if cached RSS is newer than what we used, refresh from that
-        SharedPreferences spLocal = getSharedPreferences(FetchRssWorker.PREFS, MODE_PRIVATE);
-        String cached = spLocal.getString(FetchRssWorker.KEY_RSS, "");
-        if (cached != null && !cached.trim().isEmpty() && !cached.equals(lastAppliedRss)) {
-            vm.refreshFromRssAsync(cached);
-            lastAppliedRss = cached;
-        }
+        // show the persisted rates if nothing is on screen yet (no parsing)
+        vm.onSnapshotVersion(0L);
     }
 
     @Override
@@ -153,6 +236,37 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Pipeline metrics and pool stats for field debugging:
+     * {@code adb shell dumpsys activity org.me.gcu.jang_sae_s2432618/.MainActivity}
+     * (add {@code reset-metrics} to zero them afterwards).
+     */
+    @Override
+    public void dump(@NonNull String prefix, @Nullable FileDescriptor fd,
+                     @NonNull PrintWriter writer, @Nullable String[] args) {
+        super.dump(prefix, fd, writer, args);
+        String inner = prefix + "  ";
+        writer.print(prefix);
+        writer.println("Metrics:");
+        writer.print(Metrics.dump(inner));
+        writer.print(prefix);
+        writer.println("Pools:");
+        for (String line : AppScheduler.get().dump().split("\n")) {
+            writer.print(inner);
+            writer.println(line);
+        }
+        if (adapter != null) {
+            writer.print(prefix);
+            writer.println("Adapter: binds=" + adapter.bindCount()
+                    + " avg=" + adapter.averageBindNanos() / 1000 + "us");
+        }
+        if (args != null && Arrays.asList(args).contains("reset-metrics")) {
+            Metrics.reset();
+            writer.print(prefix);
+            writer.println("(metrics reset)");
+        }
+    }
+
     // ----------------- search and list setup -----------------
 
     private void configureSearchView() {
@@ -207,7 +321,7 @@ public class MainActivity extends AppCompatActivity {
                     : (v.getId() == R.id.btnEUR) ? "EUR"
                     : "JPY";
 
-            RateItem item = findByCode(vm.rates.getValue(), wanted);
+            RateItem item = vm.rateFor(wanted);
             if (item != null) {
                 openConverter(item);
             } else {
@@ -234,7 +348,10 @@ public class MainActivity extends AppCompatActivity {
         });
 
         vm.filteredRates.observe(this, list -> {
-            if (adapter != null) adapter.submitList(list);
+            if (adapter != null) {
+                boolean hasRates = list != null && !list.isEmpty();
+                adapter.submitList(list, hasRates ? this::onRatesShown : null);
+            }
             if (list != null && !list.isEmpty() && vm.error.getValue() == null && errorBanner != null) {
                 errorBanner.setVisibility(View.GONE);
             }
@@ -293,78 +410,4 @@ public class MainActivity extends AppCompatActivity {
             }
         }
     }
-
-    // download RSS on a background thread and pass it to the view model
-    private void fetchRssAndRefresh() {
-        new Thread(() -> {
-            String rss = "";
-            Exception problem = null;
-
-            try {
-                java.net.URL url = new java.net.URL(URL_SOURCE);
-                java.net.HttpURLConnection conn = (java.net.HttpURLConnection) url.openConnection();
-                conn.setRequestMethod("GET");
-                conn.setConnectTimeout(10_000);
-                conn.setReadTimeout(10_000);
-                conn.setRequestProperty("User-Agent", "Mozilla/5.0 (Android; CurrencyApp/1.0)");
-
-                int code = conn.getResponseCode();
-                if (code == 200) {
-                    try (java.io.BufferedReader in = new java.io.BufferedReader(
-                            new java.io.InputStreamReader(conn.getInputStream(),
-                                    java.nio.charset.StandardCharsets.UTF_8))) {
-                        StringBuilder sb = new StringBuilder();
-                        String line;
-                        while ((line = in.readLine()) != null) sb.append(line).append('\n');
-                        rss = sb.toString();
-                    }
-                } else {
-                    problem = new RuntimeException("HTTP " + code);
-                }
-                conn.disconnect();
-
-                // try to strip out anything before/after the actual RSS XML
-                if (rss != null && !rss.isEmpty()) {
-                    int i = rss.indexOf("<?xml");
-                    if (i >= 0) rss = rss.substring(i);
-                    int end = rss.indexOf("</rss>");
-                    if (end > 0) rss = rss.substring(0, end + 6);
-                }
-            } catch (Exception e) {
-                problem = e;
-            }
-
-            final String finalRss = rss;
-            final Exception finalProblem = problem;
-
-            runOnUiThread(() -> {
-                if (finalProblem != null) {
-                    if (errorBanner != null) {
-                        errorBanner.setText("Network error: " +
-                                (finalProblem.getMessage() == null
-                                        ? finalProblem.getClass().getSimpleName()
-                                        : finalProblem.getMessage()));
-                        errorBanner.setVisibility(View.VISIBLE);
-                    }
-                    return;
-                }
-
-                if (finalRss == null || finalRss.trim().isEmpty()) {
-                    if (errorBanner != null) {
-                        errorBanner.setText("No data received. Check connection or try again.");
-                        errorBanner.setVisibility(View.VISIBLE);
-                    }
-                } else {
-                    vm.refreshFromRssAsync(finalRss);
-                    vm.setQuery("");
-                }
-            });
-        }).start();
-    }
-
-    private RateItem findByCode(List<RateItem> list, String code) {
-        if (list == null || code == null) return null;
-        for (RateItem r : list) if (code.equalsIgnoreCase(r.code)) return r;
-        return null;
-    }
 }
@@ -0,0 +1,158 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process counters and histograms for the refresh pipeline: fetch → parse → publish →
+ * filter → bind. Recording is a few atomic adds and never allocates, so it stays on in
+ * release builds; {@link #dump} is what MainActivity prints under {@code dumpsys activity}.
+ *
+ * The stages' own metrics are the constants below; other code can register more by name.
+ * Pure Java: the android.os.Trace sections around the same stages live in the Android classes.
+ */
+public final class Metrics {
+    private Metrics() {}
+
+    private static final ConcurrentHashMap<String, Object> REGISTRY = new ConcurrentHashMap<>();
+
+    // Fetch: whole download (request to body drained), per feed
+    public static final Histogram FETCH_TIME = histogram("fetch.time", "us");
+    public static final Histogram FETCH_WIRE_BYTES = histogram("fetch.bytes.wire", "B");
+    public static final Counter FETCH_NOT_MODIFIED = counter("fetch.not_modified");
+    public static final Counter FETCH_ERRORS = counter("fetch.errors");
+    // Parse: time inside the parser, which reads the body as it arrives
+    public static final Histogram PARSE_TIME = histogram("parse.time", "us");
+    public static final Counter PARSE_ITEMS = counter("parse.items");
+    public static final Counter PARSE_REJECTED = counter("parse.rejected");
+    // Publish: CurrencyRepository.publish, diff and engines included
+    public static final Histogram PUBLISH_TIME = histogram("publish.time", "us");
+    // UI: one search / list filter, and one RecyclerView row bind
+    public static final Histogram FILTER_TIME = histogram("filter.time", "us");
+    public static final Histogram BIND_TIME = histogram("bind.time", "us");
+    // Cold start, from process start: first frame drawn, and rates on screen
+    public static final Histogram STARTUP_TTID = histogram("startup.ttid", "ms");
+    public static final Histogram STARTUP_TTFD = histogram("startup.ttfd", "ms");
+
+    /** The counter called {@code name}, created on first use. */
+    public static Counter counter(String name) {
+        return (Counter) REGISTRY.computeIfAbsent(name, n -> new Counter());
+    }
+
+    /** The histogram called {@code name} (values in {@code unit}), created on first use. */
+    public static Histogram histogram(String name, String unit) {
+        return (Histogram) REGISTRY.computeIfAbsent(name, n -> new Histogram(unit));
+    }
+
+    /** One line per metric, sorted by name, each starting with {@code prefix}. */
+    public static String dump(String prefix) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Object> e : new TreeMap<>(REGISTRY).entrySet()) {
+            sb.append(prefix).append(e.getKey()).append(": ").append(e.getValue()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /** Zero every metric (e.g. before measuring one scenario). */
+    public static void reset() {
+        for (Object m : REGISTRY.values()) {
+            if (m instanceof Counter) ((Counter) m).reset();
+            else ((Histogram) m).reset();
+        }
+    }
+
+    public static final class Counter {
+        private final LongAdder n = new LongAdder();
+
+        Counter() {}
+
+        public void inc() { n.increment(); }
+        public void add(long delta) { n.add(delta); }
+        public long get() { return n.sum(); }
+        void reset() { n.reset(); }
+
+        @Override
+        public String toString() { return Long.toString(get()); }
+    }
+
+    /**
+     * Log-linear histogram of non-negative longs: exact below 16, then 8 buckets per power of
+     * two, so a percentile is within 12.5% of the true value (and never above the maximum).
+     */
+    public static final class Histogram {
+        private static final int SUB_BITS = 3, SUB = 1 << SUB_BITS;   // 8 buckets per octave
+        private static final int LINEAR = 2 * SUB;                    // 0..15 are exact
+        private static final int BUCKETS = LINEAR + (63 - SUB_BITS - 1) * SUB;
+
+        public final String unit;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder(), sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        Histogram(String unit) { this.unit = unit; }
+
+        public void record(long value) {
+            long v = Math.max(0, value);
+            buckets.incrementAndGet(bucket(v));
+            count.increment();
+            sum.add(v);
+            long m;
+            while (v > (m = max.get()) && !max.compareAndSet(m, v)) { /* retry */ }
+        }
+
+        /** Record a duration measured in nanoseconds, for a histogram in microseconds. */
+        public void recordNanos(long nanos) { record(nanos / 1000); }
+
+        public long count() { return count.sum(); }
+        public long max()   { return max.get(); }
+        public long mean()  { long n = count(); return n == 0 ? 0 : sum.sum() / n; }
+
+        /** Upper bound of the bucket holding quantile {@code q}, capped at max(); 0 if empty. */
+        public long percentile(double q) {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) total += buckets.get(i);
+            if (total == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(q * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) return Math.min(upperBound(i), max());
+            }
+            return max();
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKETS; i++) buckets.set(i, 0);
+            count.reset();
+            sum.reset();
+            max.set(0);
+        }
+
+        static int bucket(long v) {
+            if (v < LINEAR) return (int) v;
+            int octave = 63 - Long.numberOfLeadingZeros(v);       // >= 4
+            int sub = (int) (v >>> (octave - SUB_BITS)) & (SUB - 1);
+            return LINEAR + (octave - SUB_BITS - 1) * SUB + sub;
+        }
+
+        static long upperBound(int bucket) {
+            if (bucket < LINEAR) return bucket;
+            int octave = (bucket - LINEAR) / SUB + SUB_BITS + 1;
+            long sub = (bucket - LINEAR) % SUB;
+            long next = (SUB + sub + 1) << (octave - SUB_BITS);
+            return next - 1 < 0 ? Long.MAX_VALUE : next - 1;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "n=%d mean=%d p50=%d p95=%d p99=%d max=%d %s",
+                    count(), mean(), percentile(0.50), percentile(0.95), percentile(0.99),
+                    max(), unit);
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Fetches the configured base-currency feeds (gbp, usd, eur, ...) in parallel and merges them
+ * into one GBP-based result.
+ *
+ * At most {@code maxParallel} feeds download at once; each has its own timeout, counted from
+ * when it starts, and a feed that fails or times out is simply missing from the merge. So a
+ * refresh takes about as long as the slowest feed, and never longer than its timeout.
+ * A timed-out download is cut off, so its slot frees at once; any other run sharing it
+ * (same feed, same timeout) fails with it.
+ * Downloads go through {@link FeedFetcher}, so they still coalesce with any in flight.
+ *
+ * The GBP feed stays authoritative: other feeds only add currencies it does not list, or
+ * stand in for it when it failed, re-based through their GBP quote.
+ */
+public final class MultiFeedFetcher {
+
+    private static final String TAG = "MultiFeedFetcher";
+
+    public static final String DEFAULT_BASES = "gbp,usd,eur";
+    public static final int MAX_PARALLEL = 3;
+    public static final long FEED_TIMEOUT_MS =
+            FeedHttp.CONNECT_TIMEOUT_MS + FeedHttp.READ_TIMEOUT_MS;
+
+    // Digits kept for rates derived through another base
+    static final int REBASED_SCALE = 8;
+
+    private static final String DEFAULT_TITLE =
+            "British Pound Sterling(GBP) Currency Exchange Rates";
+
+    /** One feed: the currency its rates are quoted against and where to get it. */
+    public static final class Source {
+        public final String base;
+        public final String url;
+
+        public Source(String base, String url) {
+            this.base = base;
+            this.url = url;
+        }
+
+        /** fx-exchange's feed for {@code base}, e.g. "USD" -> .../usd/rss.xml. */
+        public static Source forBase(String base) {
+            String b = base.toUpperCase(Locale.ROOT);
+            String path = b.toLowerCase(Locale.ROOT);
+            return new Source(b, "https://www.fx-exchange.com/" + path + "/rss.xml");
+        }
+
+        /** "gbp, usd,eur" -> sources; GBP always first, duplicates and non-codes dropped. */
+        public static List<Source> parse(String bases) {
+            Map<String, Source> out = new LinkedHashMap<>();
+            out.put(CrossRateEngine.PIVOT, forBase(CrossRateEngine.PIVOT));
+            if (bases != null) {
+                for (String b : bases.split(",")) {
+                    String code = b.trim().toUpperCase(Locale.ROOT);
+                    if (RatesParser.isCode(code) && !out.containsKey(code)) {
+                        out.put(code, forBase(code));
+                    }
+                }
+            }
+            return new ArrayList<>(out.values());
+        }
+    }
+
+    /** What happened to one feed; exactly one of result / error is set. */
+    public static final class Outcome {
+        public final Source source;
+        public final FeedFetcher.Result result;
+        public final Throwable error;
+        public final long elapsedMs;
+
+        Outcome(Source source, FeedFetcher.Result result, Throwable error, long elapsedMs) {
+            this.source = source;
+            this.result = result;
+            this.error = error;
+            this.elapsedMs = elapsedMs;
+        }
+
+        public boolean ok() { return result != null; }
+    }
+
+    /** Every feed's outcome, in source order. */
+    public static final class Merged {
+        public final List<Outcome> outcomes;
+
+        Merged(List<Outcome> outcomes) { this.outcomes = outcomes; }
+
+        /** The GBP feed's outcome, or null if it was not configured. */
+        public Outcome primary() {
+            for (Outcome o : outcomes) if (CrossRateEngine.PIVOT.equals(o.source.base)) return o;
+            return null;
+        }
+
+        /** The primary's error if it failed, else the first error; null if all succeeded. */
+        public Throwable error() {
+            Outcome p = primary();
+            if (p != null && p.error != null) return p.error;
+            for (Outcome o : outcomes) if (o.error != null) return o.error;
+            return null;
+        }
+
+        /**
+         * One GBP-based result to persist: the GBP feed's (a 304 stays a 304), plus any
+         * currency only another feed lists; or, if the GBP feed failed, the other feeds
+         * re-based. Null if no feed produced rates.
+         *
+         * A GBP 304 wins even when other feeds returned 200: their rates are dropped and the
+         * persisted snapshot, extras included, is kept. Re-basing needs GBP's own quotes, which
+         * a 304 does not carry, and the extras only fill gaps GBP leaves, so they lag by at
+         * most one GBP update instead of costing a snapshot read and rewrite on every run.
+         */
+        public FeedFetcher.Result toPivotResult() {
+            Outcome p = primary();
+            if (p != null && p.ok() && p.result.isNotModified()) return p.result;
+
+            Map<String, RateItem> items = new LinkedHashMap<>();
+            String title = DEFAULT_TITLE, updated = null;
+            long wire = 0, body = 0;
+            if (p != null && p.ok()) {
+                for (RateItem it : p.result.parsed.items) items.put(it.code, it);
+                title = p.result.parsed.title;
+                updated = p.result.parsed.lastUpdated;
+            }
+            int direct = items.size();
+
+            for (Outcome o : outcomes) {
+                wire += o.ok() ? o.result.wireBytes : 0;
+                body += o.ok() ? o.result.bodyBytes : 0;
+                if (o == p || !o.ok() || o.result.isNotModified()) continue;
+                if (rebase(o.source.base, o.result.parsed.items, items) && updated == null) {
+                    updated = o.result.parsed.lastUpdated;
+                }
+            }
+            if (items.isEmpty()) return null;
+
+            List<RateItem> list = new ArrayList<>(items.values());
+            boolean primaryOnly = p != null && p.ok() && items.size() == direct;
+            // Body hash when the GBP feed alone made the list, else a hash of the merged rates
+            long hash = primaryOnly ? p.result.bodyHash : RatesSnapshot.hashOf(list);
+            FeedHttp.Validators validators = (p != null && p.ok())
+                    ? p.result.validators : FeedHttp.Validators.NONE;
+            return new FeedFetcher.Result(200, new ParseResult(title, updated, list),
+                    validators, wire, body, hash);
+        }
+
+        /**
+         * Add {@code quoted} (per 1 {@code base}) to {@code into} (per 1 GBP) for codes it lacks.
+         * Needs GBP→base from {@code into} or base→GBP from {@code quoted}; false without either.
+         */
+        private static boolean rebase(String base, List<RateItem> quoted,
+                                      Map<String, RateItem> into) {
+            RateItem gbpToBase = into.get(base);
+            RateItem baseToGbp = null;
+            for (RateItem it : quoted) {
+                if (CrossRateEngine.PIVOT.equals(it.code)) baseToGbp = it;
+            }
+            boolean viaDirect = gbpToBase != null && gbpToBase.rateUnscaled > 0;
+            if (!viaDirect && (baseToGbp == null || baseToGbp.rateUnscaled <= 0)) return false;
+
+            if (!viaDirect) {
+                // 1 GBP = 1 / (GBP per base) base
+                long u = FixedPoint.convert(1, 0, 1, 0,
+                        baseToGbp.rateUnscaled, baseToGbp.rateScale, REBASED_SCALE);
+                if (u == FixedPoint.OVERFLOW || u <= 0) return false;
+                gbpToBase = new RateItem(base, base, "", u, REBASED_SCALE);
+                into.put(base, gbpToBase);
+            }
+            for (RateItem it : quoted) {
+                if (into.containsKey(it.code) || CrossRateEngine.PIVOT.equals(it.code)
+                        || it.rateUnscaled <= 0) {
+                    continue;
+                }
+                // GBP→X = (base→X) × (GBP→base)
+                long u = FixedPoint.convert(it.rateUnscaled, it.rateScale,
+                        gbpToBase.rateUnscaled, gbpToBase.rateScale, 1, 0, REBASED_SCALE);
+                if (u != FixedPoint.OVERFLOW && u > 0) {
+                    into.put(it.code, new RateItem(it.code, it.name, it.country, u, REBASED_SCALE));
+                }
+            }
+            return true;
+        }
+    }
+
+    private static volatile MultiFeedFetcher instance;
+
+    public static MultiFeedFetcher get(Context context) {
+        if (instance == null) {
+            synchronized (MultiFeedFetcher.class) {
+                if (instance == null) {
+                    instance = new MultiFeedFetcher(FeedFetcher.get(context),
+                            MAX_PARALLEL, FEED_TIMEOUT_MS);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /** The feeds configured in prefs ({@link FetchRssWorker#KEY_FEED_BASES}). */
+    public static List<Source> configured(Context context) {
+        SharedPreferences sp = context.getApplicationContext()
+                .getSharedPreferences(FetchRssWorker.PREFS, Context.MODE_PRIVATE);
+        return Source.parse(sp.getString(FetchRssWorker.KEY_FEED_BASES, DEFAULT_BASES));
+    }
+
+    private final FeedFetcher fetcher;
+    private final int maxParallel;
+    private final long timeoutMs;
+
+    MultiFeedFetcher(FeedFetcher fetcher, int maxParallel, long timeoutMs) {
+        this.fetcher = fetcher;
+        this.maxParallel = maxParallel;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /** Upper bound on how long {@link #fetchAll} can take for {@code feeds} feeds. */
+    public long deadlineMs(int feeds) {
+        int rounds = (feeds + maxParallel - 1) / maxParallel;
+        return rounds * timeoutMs + 1000;
+    }
+
+    /** Fetch every source; completes (never exceptionally) once each has an outcome. */
+    public CompletableFuture<Merged> fetchAll(List<Source> sources) {
+        return new Run(sources).start();
+    }
+
+    /** One fetchAll: a queue of sources, at most maxParallel of them running. */
+    private final class Run {
+        private final List<Source> sources;
+        private final Outcome[] outcomes;
+        private final ArrayDeque<Integer> queue = new ArrayDeque<>();
+        private final CompletableFuture<Merged> done = new CompletableFuture<>();
+        private int running, left;
+
+        Run(List<Source> sources) {
+            this.sources = sources;
+            this.outcomes = new Outcome[sources.size()];
+            for (int i = 0; i < outcomes.length; i++) queue.add(i);
+            left = outcomes.length;
+        }
+
+        CompletableFuture<Merged> start() {
+            if (left == 0) done.complete(new Merged(Collections.emptyList()));
+            else launchMore();
+            return done;
+        }
+
+        private void launchMore() {
+            while (true) {
+                int i;
+                synchronized (this) {
+                    if (running >= maxParallel || queue.isEmpty()) return;
+                    i = queue.poll();
+                    running++;
+                }
+                launch(i);
+            }
+        }
+
+        private void launch(int i) {
+            Source src = sources.get(i);
+            long t0 = System.nanoTime();
+            CompletableFuture<FeedFetcher.Result> bounded = new CompletableFuture<>();
+            // On timeout the download is dropped; its slot frees when it has actually ended
+            ScheduledFuture<?> timer = AppScheduler.get().schedule(() -> {
+                if (bounded.completeExceptionally(
+                        new TimeoutException(src.base + " feed after " + timeoutMs + " ms"))) {
+                    fetcher.cancel(src.url, src.base);
+                }
+            }, timeoutMs, TimeUnit.MILLISECONDS);
+            bounded.whenComplete((r, e) -> {
+                timer.cancel(false);
+                long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+                if (e != null) Log.w(TAG, src.base + " feed failed after " + ms + " ms", e);
+                finish(i, new Outcome(src, r, e == null ? null : unwrap(e), ms));
+            });
+            fetcher.fetch(src.url, src.base).whenComplete((r, e) -> {
+                if (e != null) bounded.completeExceptionally(unwrap(e));
+                else bounded.complete(r);
+                release();
+            });
+        }
+
+        private void finish(int i, Outcome o) {
+            boolean last;
+            synchronized (this) {
+                outcomes[i] = o;
+                last = --left == 0;
+            }
+            if (last) {
+                List<Outcome> all = new ArrayList<>(outcomes.length);
+                Collections.addAll(all, outcomes);
+                done.complete(new Merged(Collections.unmodifiableList(all)));
+            }
+        }
+
+        // The download behind a slot ended (in time or not): the next feed may start
+        private void release() {
+            synchronized (this) {
+                running--;
+            }
+            launchMore();
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return (e instanceof CompletionException && e.getCause() != null)
+                ? e.getCause() : e;
+    }
+}
@@ -1,14 +1,45 @@
 package org.me.gcu.jang_sae_s2432618;
+
+import java.math.BigDecimal;
+
 public class RateItem {
     public final String code;     // e.g., "AED"
+    public final int ordinal;     // CurrencyRegistry ordinal of code, -1 if not a code
     public final String name;     // e.g., "United Arab Emirates Dirham"
     public final String country;  // feed doesn’t provide a separate field (leave "")
-    public final double rate;     // GBP -> code (e.g., 4.9471)
+    public final double rate;     // GBP -> code (e.g., 4.9471), nearest double to the exact rate
+    public final long rateUnscaled; // exact rate as written in the feed: 49471 ...
+    public final int rateScale;     // ... x 10^-4
 
+    public RateItem(String code, String name, String country, long rateUnscaled, int rateScale) {
+        this.code = code;
+        this.ordinal = CurrencyRegistry.ordinal(code);
+        this.name = name;
+        this.country = country;
+        this.rateUnscaled = rateUnscaled;
+        this.rateScale = rateScale;
+        this.rate = FixedPoint.toDouble(rateUnscaled, rateScale);
+    }
+
+    /** From a double, taking its shortest decimal form (4.9471 stays 4.9471). */
     public RateItem(String code, String name, String country, double rate) {
         this.code = code;
+        this.ordinal = CurrencyRegistry.ordinal(code);
         this.name = name;
         this.country = country;
         this.rate = rate;
+        FixedPoint.Value v = (rate > 0 && !Double.isInfinite(rate)) ? FixedPoint.ofDouble(rate) : null;
+        this.rateUnscaled = (v == null) ? 0 : v.unscaled; // 0: no usable rate
+        this.rateScale = (v == null) ? 0 : v.scale;
+    }
+
+    /**
+     * Same exact rate as {@code other} ("1.10" equals "1.1"). The double can hide a change
+     * past ~16 significant digits; only a change of scale pays for BigDecimal.
+     */
+    public boolean sameRate(RateItem other) {
+        if (rateScale == other.rateScale) return rateUnscaled == other.rateUnscaled;
+        return BigDecimal.valueOf(rateUnscaled, rateScale)
+                .compareTo(BigDecimal.valueOf(other.rateUnscaled, other.rateScale)) == 0;
     }
 }
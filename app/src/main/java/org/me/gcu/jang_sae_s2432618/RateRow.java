@@ -0,0 +1,123 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.Resources;
+
+import androidx.core.content.ContextCompat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Everything a rates row shows, formatted ahead of time so binding is plain field assignment.
+ * Built off the main thread by {@link Factory}, once per currency and rate.
+ */
+public final class RateRow {
+
+    public final RateItem item;
+    public final String title;               // flag + code • name
+    public final String rateText;            // "4.9471"
+    public final String contentDescription;  // a11y: code, name, rate
+    public final ColorStateList badgeTint;   // by rate range
+    public final double change24h;           // percent; NaN without history
+    public final String changeText;          // "+0.12% 24h", or ""
+
+    private RateRow(RateItem item, String title, String rateText, String contentDescription,
+                    ColorStateList badgeTint, double change24h, String changeText) {
+        this.item = item;
+        this.title = title;
+        this.rateText = rateText;
+        this.contentDescription = contentDescription;
+        this.badgeTint = badgeTint;
+        this.change24h = change24h;
+        this.changeText = changeText;
+    }
+
+    /** Same currency, name, rate and 24h change: the row would render identically. */
+    boolean sameAs(RateItem other, double otherChange24h) {
+        return item.sameRate(other)
+                && Double.compare(change24h, otherChange24h) == 0
+                && Objects.equals(item.name, other.name)
+                && Objects.equals(item.country, other.country);
+    }
+
+    /**
+     * Builds rows for a snapshot, reusing the previous row of any currency whose rate and
+     * name did not change. Thread-safe; meant to run on a background thread.
+     */
+    public static final class Factory {
+        private final Resources res;
+        // Colour by ranges: <1, 1–5, 5–10, >10 (resolved once)
+        private final ColorStateList[] tints;
+
+        private RateRow[] cache = new RateRow[0]; // by CurrencyRegistry ordinal
+
+        public Factory(Context context) {
+            Context app = context.getApplicationContext();
+            res = app.getResources();
+            tints = new ColorStateList[] {
+                    ColorStateList.valueOf(ContextCompat.getColor(app, R.color.rate_lt_1)),
+                    ColorStateList.valueOf(ContextCompat.getColor(app, R.color.rate_1_5)),
+                    ColorStateList.valueOf(ContextCompat.getColor(app, R.color.rate_5_10)),
+                    ColorStateList.valueOf(ContextCompat.getColor(app, R.color.rate_gt_10)),
+            };
+        }
+
+        /** Rows for {@code items}; the 24h change comes from {@code stats} (no history scan). */
+        public synchronized List<RateRow> rowsFor(List<RateItem> items, RollingStats stats) {
+            RateRow[] next = new RateRow[CurrencyRegistry.size()];
+            List<RateRow> out = new ArrayList<>(items.size());
+            for (RateItem it : items) {
+                int o = it.ordinal;
+                double change = rounded(stats.changePercent(o, RollingStats.Window.H24));
+                RateRow row = (o >= 0 && o < cache.length) ? cache[o] : null;
+                if (row == null || !row.sameAs(it, change)) row = build(it, change);
+                if (o >= 0 && o < next.length) next[o] = row;
+                out.add(row);
+            }
+            cache = next; // drops currencies that left the feed
+            return out;
+        }
+
+        // To the 0.01% shown, so rows are only rebuilt when the text would change
+        private static double rounded(double pct) {
+            return Double.isNaN(pct) ? pct : Math.round(pct * 100) / 100.0;
+        }
+
+        private RateRow build(RateItem it, double change) {
+            String flag = "";
+            try {
+                flag = (it.ordinal >= 0) ? FlagUtil.flagForCurrency(it.ordinal)
+                        : FlagUtil.flagForCurrency(it.code);
+            } catch (Throwable ignore) { /* optional utility */ }
+
+            String title = ((flag == null || flag.isEmpty()) ? "" : (flag + " "))
+                    + (it.code == null ? "" : it.code)
+                    + " • "
+                    + (it.name == null ? "" : it.name);
+
+            // 4 dp from the feed's exact digits (no double rounding, no String.format)
+            String rateText = FixedPoint.toPlainString(
+                    FixedPoint.convert(it.rateUnscaled, it.rateScale, 1, 0, 1, 0, 4), 4);
+            String cd = res.getString(R.string.cd_currency_full, it.code, it.name, rateText);
+
+            String changeText = "";
+            if (!Double.isNaN(change)) {
+                long bp = Math.round(change * 100);
+                String pct = (bp > 0 ? "+" : "") + FixedPoint.toPlainString(bp, 2);
+                changeText = res.getString(R.string.change_24h, pct);
+                cd = cd + ". " + res.getString(R.string.cd_change_24h, pct);
+            }
+
+            int bucket;
+            if (it.rate < 1.0)       bucket = 0;
+            else if (it.rate < 5.0)  bucket = 1;
+            else if (it.rate < 10.0) bucket = 2;
+            else                     bucket = 3;
+
+            return new RateRow(it, title, rateText, cd, tints[bucket], change, changeText);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package org.me.gcu.jang_sae_s2432618;
+
+/**
+ * Hand-written extractor for the code, name and rate of one feed {@code <item>}.
+ *
+ * Title and description text is copied from the pull parser's char buffer into reusable
+ * buffers and scanned in place, so no regex is compiled or run per item. It mirrors the
+ * patterns in {@link RatesParser} exactly; titles it does not recognise are handed back
+ * to the regex path via {@link #scanTitle()} returning false.
+ */
+final class RateTextScanner {
+
+    private final String base; // the feed's base currency, e.g. "GBP"
+
+    private char[] title = new char[128];
+    private int titleLen;
+    private char[] desc = new char[256];
+    private int descLen;
+
+    // scratch buffers reused across items
+    private char[] plain = new char[256];
+    private char[] nameBuf = new char[64];
+
+    // results of scanTitle()
+    private int codeStart;
+    private String name;
+
+    // result of pickRate(): the rate's exact digits
+    private long rateUnscaled;
+    private int rateScale;
+
+    RateTextScanner() { this(RatesParser.DEFAULT_BASE); }
+
+    RateTextScanner(String base) { this.base = base; }
+
+    void reset() {
+        titleLen = 0;
+        descLen = 0;
+        name = null;
+    }
+
+    /** Append one TEXT chunk of {@code <title>} (trimmed, space-joined like appendText). */
+    void appendTitle(char[] src, int start, int len) {
+        title = append(title, titleLen, src, start, len);
+        titleLen += (titleLen == 0 ? 0 : 1) + len;
+    }
+
+    /** Append one TEXT chunk of {@code <description>}. */
+    void appendDescription(char[] src, int start, int len) {
+        desc = append(desc, descLen, src, start, len);
+        descLen += (descLen == 0 ? 0 : 1) + len;
+    }
+
+    String title()       { return new String(title, 0, titleLen); }
+    String description() { return new String(desc, 0, descLen); }
+
+    /**
+     * Find the currency code and name in the title.
+     * Returns false when the title is not in a recognised format.
+     */
+    boolean scanTitle() {
+        codeStart = codeInParens();
+        if (codeStart < 0) codeStart = codeAfterSlash();
+        if (codeStart < 0) return false;
+
+        name = nameAfterSlash();
+        return name != null;
+    }
+
+    /** Build the item after a successful {@link #scanTitle()}; null when no rate is found. */
+    RateItem buildItem() {
+        if (!pickRate()) return null;
+        // The registry's shared String, so items of every refresh reuse one per code
+        String code = CurrencyRegistry.code(CurrencyRegistry.ordinal(title, codeStart));
+        return new RateItem(code, name, "", rateUnscaled, rateScale);
+    }
+
+    // --- title ---------------------------------------------------------------------------------
+
+    // "...(AED)" at the very end: CODE_IN_PARENS
+    private int codeInParens() {
+        int n = titleLen;
+        if (n < 5 || title[n - 1] != ')' || title[n - 5] != '(') return -1;
+        return isUpper3(title, n - 4) ? n - 4 : -1;
+    }
+
+    // "GBP / AED": the base's codeAfterSlash
+    private int codeAfterSlash() {
+        for (int i = indexOf(title, titleLen, 0, base); i >= 0;
+             i = indexOf(title, titleLen, i + 1, base)) {
+            int j = skipSpace(title, titleLen, i + 3);
+            if (j >= titleLen || title[j] != '/') continue;
+            j = skipSpace(title, titleLen, j + 1);
+            if (j + 3 <= titleLen && isUpper3(title, j)) return j;
+        }
+        return -1;
+    }
+
+    // Right-hand side of the first '/', minus "(...)" groups, trimmed
+    private String nameAfterSlash() {
+        int slash = -1;
+        for (int i = 0; i < titleLen; i++) {
+            if (title[i] == '/') { slash = i; break; }
+        }
+        if (slash < 0) return null;
+
+        if (nameBuf.length < titleLen) nameBuf = new char[titleLen];
+        int len = 0;
+        for (int i = slash + 1; i < titleLen; i++) {
+            char c = title[i];
+            if (c == '(') {
+                int close = closingOnSameLine(title, titleLen, i, ')');
+                if (close >= 0) { i = close; continue; }
+            }
+            nameBuf[len++] = c;
+        }
+
+        int s = 0, e = len;
+        while (s < e && nameBuf[s] <= ' ') s++;
+        while (e > s && nameBuf[e - 1] <= ' ') e--;
+        return (s == e) ? null : new String(nameBuf, s, e - s);
+    }
+
+    // --- description ---------------------------------------------------------------------------
+
+    /**
+     * Rate as in pickRate(): "GBP = n XXX" first, else the last number. Sets rateUnscaled /
+     * rateScale to its exact digits; false if there is none.
+     */
+    private boolean pickRate() {
+        int n = stripMarkup();
+
+        int numStart = -1, numEnd = -1;
+        for (int i = indexOf(plain, n, 0, base); i >= 0; i = indexOf(plain, n, i + 1, base)) {
+            int j = skipSpace(plain, n, i + 3);
+            if (j >= n || plain[j] != '=') continue;
+            j = skipSpace(plain, n, j + 1);
+            int end = numberEnd(plain, n, j);
+            if (end < 0) continue;
+            int k = skipSpace(plain, n, end);
+            if (k + 3 <= n && isUpper3(plain, k)) {
+                numStart = j;
+                numEnd = end;
+                break;
+            }
+        }
+
+        if (numStart < 0) {
+            for (int i = 0; i < n; ) {
+                int end = numberEnd(plain, n, i);
+                if (end < 0) { i++; continue; }
+                numStart = i;
+                numEnd = end;
+                i = end;
+            }
+        }
+        if (numStart < 0) return false;
+        return toFixed(plain, numStart, numEnd);
+    }
+
+    /** Copy the description into {@code plain}, replacing tags and &amp;nbsp; with spaces. */
+    private int stripMarkup() {
+        if (plain.length < descLen) plain = new char[descLen];
+        int n = 0;
+        for (int i = 0; i < descLen; i++) {
+            char c = desc[i];
+            if (c == '<') {
+                int close = closingOnSameLine(desc, descLen, i, '>');
+                if (close >= 0) {
+                    plain[n++] = ' ';
+                    i = close;
+                    continue;
+                }
+            } else if (c == '&' && regionMatches(desc, descLen, i, "&nbsp;")) {
+                plain[n++] = ' ';
+                i += 5;
+                continue;
+            }
+            plain[n++] = c;
+        }
+        return n;
+    }
+
+    /** End of [0-9]+([.,][0-9]+)? starting at i, or -1 if no digit there. */
+    private static int numberEnd(char[] s, int n, int i) {
+        if (i >= n || !isDigit(s[i])) return -1;
+        while (i < n && isDigit(s[i])) i++;
+        if (i + 1 < n && (s[i] == '.' || s[i] == ',') && isDigit(s[i + 1])) {
+            i++;
+            while (i < n && isDigit(s[i])) i++;
+        }
+        return i;
+    }
+
+    /** Exact digits of [0-9]+([.,][0-9]+)? into rateUnscaled / rateScale. */
+    private boolean toFixed(char[] s, int start, int end) {
+        long mantissa = 0;
+        int digits = 0, scale = 0;
+        boolean fraction = false;
+        for (int i = start; i < end; i++) {
+            char c = s[i];
+            if (c == '.' || c == ',') { fraction = true; continue; }
+            if (digits == 18) return slowParse(s, start, end); // could overflow a long
+            mantissa = mantissa * 10 + (c - '0');
+            if (mantissa != 0) digits++;
+            if (fraction) scale++;
+        }
+        rateUnscaled = mantissa;
+        rateScale = scale;
+        return true;
+    }
+
+    private boolean slowParse(char[] s, int start, int end) {
+        FixedPoint.Value v = FixedPoint.parse(new String(s, start, end - start));
+        if (v == null) return false;
+        rateUnscaled = v.unscaled;
+        rateScale = v.scale;
+        return true;
+    }
+
+    // --- char helpers --------------------------------------------------------------------------
+
+    private static char[] append(char[] buf, int len, char[] src, int start, int add) {
+        int need = len + add + 1;
+        if (buf.length < need) {
+            char[] bigger = new char[Math.max(need, buf.length * 2)];
+            System.arraycopy(buf, 0, bigger, 0, len);
+            buf = bigger;
+        }
+        if (len > 0) buf[len++] = ' '; // some parsers deliver TEXT in multiple chunks
+        System.arraycopy(src, start, buf, len, add);
+        return buf;
+    }
+
+    private static int indexOf(char[] s, int n, int from, String needle) {
+        int last = n - needle.length();
+        for (int i = from; i <= last; i++) {
+            if (regionMatches(s, n, i, needle)) return i;
+        }
+        return -1;
+    }
+
+    private static boolean regionMatches(char[] s, int n, int at, String needle) {
+        if (at + needle.length() > n) return false;
+        for (int k = 0; k < needle.length(); k++) {
+            if (s[at + k] != needle.charAt(k)) return false;
+        }
+        return true;
+    }
+
+    /** Index of the first {@code close} after {@code open}, or -1 if a line break comes first (regex '.'). */
+    private static int closingOnSameLine(char[] s, int n, int open, char close) {
+        for (int i = open + 1; i < n; i++) {
+            char c = s[i];
+            if (c == close) return i;
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') return -1;
+        }
+        return -1;
+    }
+
+    // regex \s
+    private static int skipSpace(char[] s, int n, int i) {
+        while (i < n) {
+            char c = s[i];
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\u000B' && c != '\f' && c != '\r') break;
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isUpper3(char[] s, int i) {
+        return isUpper(s[i]) && isUpper(s[i + 1]) && isUpper(s[i + 2]);
+    }
+
+    private static boolean isUpper(char c) { return c >= 'A' && c <= 'Z'; }
+
+    private static boolean isDigit(char c) { return c >= '0' && c <= '9'; }
+}
@@ -1,34 +1,84 @@
 package org.me.gcu.jang_sae_s2432618;
 
-import android.graphics.drawable.Drawable;
+import android.os.SystemClock;
+import android.os.Trace;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
-import androidx.core.content.ContextCompat;
-import androidx.core.graphics.drawable.DrawableCompat;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
+import java.util.Objects;
 
-public class RatesAdapter extends RecyclerView.Adapter<RatesAdapter.VH> {
+/**
+ * Rates list. Submitted lists are diffed off the main thread (ListAdapter/AsyncListDiffer)
+ * by currency code, so a refresh or a search keystroke only rebinds the rows that changed;
+ * a row whose rate alone moved only rebinds its rate badge.
+ *
+ * Rows arrive preformatted ({@link RateRow}), so binding is field assignment only.
+ */
+public class RatesAdapter extends ListAdapter<RateRow, RatesAdapter.VH> {
 
     public interface OnItemClick { void onRateClicked(RateItem item); }
 
-    private final List<RateItem> data = new ArrayList<>();
+    // Change payload: only the rate (or its 24h change) differs
+    static final Object PAYLOAD_RATE = new Object();
+
+    static final DiffUtil.ItemCallback<RateRow> DIFF = new DiffUtil.ItemCallback<RateRow>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull RateRow a, @NonNull RateRow b) {
+            return (a.item.ordinal >= 0) ? a.item.ordinal == b.item.ordinal
+                    : Objects.equals(a.item.code, b.item.code);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull RateRow a, @NonNull RateRow b) {
+            // Unchanged rows are the same cached instance
+            return a == b || a.sameAs(b.item, b.change24h);
+        }
+
+        @Override
+        public Object getChangePayload(@NonNull RateRow a, @NonNull RateRow b) {
+            return sameLabels(a.item, b.item) ? PAYLOAD_RATE : null;
+        }
+
+        private boolean sameLabels(RateItem a, RateItem b) {
+            return Objects.equals(a.name, b.name) && Objects.equals(a.country, b.country);
+        }
+    };
+
     private final OnItemClick click;
 
-    public RatesAdapter(OnItemClick click) { this.click = click; }
+    // Bind cost, main thread only
+    private long binds;
+    private long bindNanos;
+
+    public RatesAdapter(OnItemClick click) {
+        super(DIFF);
+        this.click = click;
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        RateItem it = getItem(position).item;
+        return (it.ordinal >= 0) ? it.ordinal : stableId(it.code) | (1L << 62);
+    }
 
-    public void submitList(List<RateItem> list) {
-        data.clear();
-        if (list != null) data.addAll(list);
-        notifyDataSetChanged();
+    /** Odd (non-currency) codes: pack up to four chars losslessly, else hash. */
+    static long stableId(String code) {
+        if (code == null) return RecyclerView.NO_ID - 1;
+        if (code.length() > 4) return (code.hashCode() & 0xFFFFFFFFL) | (1L << 63);
+        long id = 0;
+        for (int i = 0; i < code.length(); i++) id = (id << 16) | code.charAt(i);
+        return id;
     }
 
     @NonNull
@@ -36,71 +86,72 @@ public class RatesAdapter extends RecyclerView.Adapter<RatesAdapter.VH> {
     public VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View v = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.row_rate_item, parent, false);
-        return new VH(v);
+        VH h = new VH(v);
+
+        // One listener per holder; resolve the row at click time
+        v.setOnClickListener(view -> {
+            int pos = h.getBindingAdapterPosition();
+            if (click != null && pos != RecyclerView.NO_POSITION) {
+                click.onRateClicked(getItem(pos).item);
+            }
+        });
+        return h;
     }
 
     @Override
-    public void onBindViewHolder(@NonNull VH h, int position) {
-        final RateItem it = data.get(position);
-
-        // A11y: row-level content description (code, name, rate)
-        h.itemView.setContentDescription(
-                h.itemView.getResources().getString(
-                        R.string.cd_currency_full,
-                        it.code,
-                        it.name,
-                        String.format(Locale.US, "%.4f", it.rate)
-                )
-        );
-
-        // Flag + code + name
-        String flag = "";
+    public void onBindViewHolder(@NonNull VH h, int position, @NonNull List<Object> payloads) {
+        long t0 = SystemClock.elapsedRealtimeNanos();
+        Trace.beginSection("rates:bind");
         try {
-            flag = FlagUtil.flagForCurrency(it.code);
-        } catch (Throwable ignore) { /* optional utility */ }
-
-        String title = ((flag == null || flag.isEmpty()) ? "" : (flag + " "))
-                + (it.code == null ? "" : it.code)
-                + " • "
-                + (it.name == null ? "" : it.name);
-        h.codeName.setText(title);
-
-        h.country.setText(it.country == null ? "" : it.country);
-        h.rate.setText(String.format(Locale.UK, "%.4f", it.rate));
-
-        // Colour by ranges: <1, 1–5, 5–10, >10
-        int colorRes;
-        if (it.rate < 1.0)       colorRes = R.color.rate_lt_1;
-        else if (it.rate < 5.0)  colorRes = R.color.rate_1_5;
-        else if (it.rate < 10.0) colorRes = R.color.rate_5_10;
-        else                     colorRes = R.color.rate_gt_10;
-
-        int tint = ContextCompat.getColor(h.itemView.getContext(), colorRes);
-
-        // Safely tint the badge background
-        Drawable bg = h.rate.getBackground();
-        if (bg != null) {
-            Drawable wrapped = DrawableCompat.wrap(bg.mutate());
-            DrawableCompat.setTint(wrapped, tint);
-            h.rate.setBackground(wrapped);
+            RateRow row = getItem(position);
+            if (!payloads.isEmpty() && onlyRate(payloads)) {
+                bindRate(h, row);
+            } else {
+                h.codeName.setText(row.title);
+                h.country.setText(row.item.country);
+                bindRate(h, row);
+            }
+        } finally {
+            Trace.endSection();
         }
+        long took = SystemClock.elapsedRealtimeNanos() - t0;
+        bindNanos += took;
+        binds++;
+        Metrics.BIND_TIME.recordNanos(took);
+    }
 
-        // Click
-        h.itemView.setOnClickListener(v -> {
-            if (click != null) click.onRateClicked(it);
-        });
+    private static boolean onlyRate(List<Object> payloads) {
+        for (Object p : payloads) if (p != PAYLOAD_RATE) return false;
+        return true;
     }
 
     @Override
-    public int getItemCount() { return data.size(); }
+    public void onBindViewHolder(@NonNull VH h, int position) {
+        onBindViewHolder(h, position, Collections.emptyList());
+    }
+
+    // Everything that depends on the rate: badge text, badge colour, 24h change, description
+    private static void bindRate(VH h, RateRow row) {
+        h.itemView.setContentDescription(row.contentDescription);
+        h.rate.setText(row.rateText);
+        h.rate.setBackgroundTintList(row.badgeTint);
+        h.change.setText(row.changeText);
+    }
+
+    /** Rows bound so far (full or partial). */
+    public long bindCount() { return binds; }
+
+    /** Mean time per bind, in nanoseconds; 0 before the first bind. */
+    public long averageBindNanos() { return binds == 0 ? 0 : bindNanos / binds; }
 
     static class VH extends RecyclerView.ViewHolder {
-        final TextView codeName, country, rate;
+        final TextView codeName, country, rate, change;
         VH(@NonNull View itemView) {
             super(itemView);
             codeName = itemView.findViewById(R.id.codeNameText);
             country  = itemView.findViewById(R.id.countryText);
             rate     = itemView.findViewById(R.id.rateText);
+            change   = itemView.findViewById(R.id.changeText);
         }
     }
 }
@@ -0,0 +1,118 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What changed between two rate lists, keyed by currency code.
+ * Lets consumers touch only the rows that moved instead of reprocessing the whole feed.
+ */
+public final class RatesDelta {
+
+    public static final RatesDelta NONE = new RatesDelta(
+            Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), false);
+
+    /** One currency present in both lists whose rate (or name) differs. */
+    public static final class Change {
+        public final RateItem before;
+        public final RateItem after;
+
+        Change(RateItem before, RateItem after) {
+            this.before = before;
+            this.after = after;
+        }
+
+        public String code()     { return after.code; }
+        public double oldRate()  { return before.rate; }
+        public double newRate()  { return after.rate; }
+    }
+
+    public final List<RateItem> added;
+    public final List<RateItem> removed;
+    public final List<Change> changed;
+    /** Same set of codes but in a different order. */
+    public final boolean reordered;
+
+    private RatesDelta(List<RateItem> added, List<RateItem> removed, List<Change> changed,
+                       boolean reordered) {
+        this.added = added;
+        this.removed = removed;
+        this.changed = changed;
+        this.reordered = reordered;
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty() && !reordered;
+    }
+
+    /** Diff {@code before} against {@code after}: old positions indexed by ordinal, O(n). */
+    public static RatesDelta between(List<RateItem> before, List<RateItem> after) {
+        if (before == null) before = Collections.emptyList();
+        if (after == null) after = Collections.emptyList();
+
+        // Old position + 1 by CurrencyRegistry ordinal (0 = not in before); items whose code
+        // is not a currency code fall back to a map
+        int[] oldIndex = new int[CurrencyRegistry.size()];
+        Map<String, Integer> odd = null;
+        for (int i = 0; i < before.size(); i++) {
+            RateItem it = before.get(i);
+            if (it.ordinal >= 0 && it.ordinal < oldIndex.length) {
+                oldIndex[it.ordinal] = i + 1;
+            } else {
+                if (odd == null) odd = new HashMap<>();
+                odd.put(it.code, i);
+            }
+        }
+
+        List<RateItem> added = new ArrayList<>();
+        List<Change> changed = new ArrayList<>();
+        boolean[] kept = new boolean[before.size()];
+        boolean reordered = false;
+        int lastOld = -1;
+
+        for (RateItem now : after) {
+            int i;
+            if (now.ordinal >= 0 && now.ordinal < oldIndex.length) {
+                i = oldIndex[now.ordinal] - 1;
+            } else {
+                Integer at = (odd == null) ? null : odd.get(now.code);
+                i = (at == null) ? -1 : at;
+            }
+            if (i < 0) {
+                added.add(now);
+                continue;
+            }
+            kept[i] = true;
+            if (i < lastOld) reordered = true;
+            lastOld = i;
+
+            RateItem was = before.get(i);
+            if (!was.sameRate(now) || !same(was.name, now.name)) {
+                changed.add(new Change(was, now));
+            }
+        }
+
+        List<RateItem> removed = new ArrayList<>();
+        for (int i = 0; i < kept.length; i++) {
+            if (!kept[i]) removed.add(before.get(i));
+        }
+
+        if (added.isEmpty() && removed.isEmpty() && changed.isEmpty() && !reordered) return NONE;
+        return new RatesDelta(Collections.unmodifiableList(added),
+                Collections.unmodifiableList(removed), Collections.unmodifiableList(changed),
+                reordered);
+    }
+
+    private static boolean same(String a, String b) {
+        return (a == null) ? b == null : a.equals(b);
+    }
+
+    @Override
+    public String toString() {
+        return "+" + added.size() + " -" + removed.size() + " ~" + changed.size()
+                + (reordered ? " reordered" : "");
+    }
+}
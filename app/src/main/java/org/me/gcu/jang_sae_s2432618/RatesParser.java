@@ -1,33 +1,72 @@
 package org.me.gcu.jang_sae_s2432618;
 
-import android.util.Log;
-
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserFactory;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
 import java.io.StringReader;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public final class RatesParser {
 
-    private static final String TAG = "RatesParser";
-
     private static final DateTimeFormatter RFC822_UTC =
             DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'UTC'")
                     .withZone(ZoneOffset.UTC);
 
+    /** Base currency of the fx-exchange GBP feed; other feeds quote against their own. */
+    public static final String DEFAULT_BASE = "GBP";
+
     // Regex helpers
     private static final Pattern CODE_IN_PARENS   = Pattern.compile("\\(([A-Z]{3})\\)\\s*$");
-    private static final Pattern CODE_AFTER_SLASH = Pattern.compile("GBP\\s*/\\s*([A-Z]{3})");
     private static final Pattern ANY_TRIPLE       = Pattern.compile("\\b([A-Z]{3})\\b");
-    private static final Pattern FEED_RATE        =
-            Pattern.compile("GBP\\s*=\\s*([0-9]+(?:[\\.,][0-9]+)?)\\s*[A-Z]{3}");
+    private static final Pattern ANY_NUMBER       = Pattern.compile("([0-9]+(?:[\\.,][0-9]+)?)");
+
+    /** The patterns that mention the feed's base currency ("GBP / AED", "GBP = 4.9 AED"). */
+    private static final class Base {
+        final String code;
+        final Pattern codeAfterSlash;
+        final Pattern feedRate;
+
+        Base(String code) {
+            this.code = code;
+            codeAfterSlash = Pattern.compile(code + "\\s*/\\s*([A-Z]{3})");
+            feedRate = Pattern.compile(code + "\\s*=\\s*([0-9]+(?:[\\.,][0-9]+)?)\\s*[A-Z]{3}");
+        }
+    }
+
+    private static final ConcurrentHashMap<String, Base> BASES = new ConcurrentHashMap<>();
+
+    private static Base base(String code) {
+        Base b = BASES.get(code);
+        if (b != null) return b;
+        if (!isCode(code)) throw new IllegalArgumentException("base must be a 3-letter code: " + code);
+        return BASES.computeIfAbsent(code, Base::new);
+    }
+
+    static boolean isCode(String s) {
+        if (s == null || s.length() != 3) return false;
+        for (int i = 0; i < 3; i++) {
+            char c = s.charAt(i);
+            if (c < 'A' || c > 'Z') return false;
+        }
+        return true;
+    }
+
+    /** Receives each rate as soon as its {@code <item>} closes. */
+    public interface ItemListener {
+        void onItem(RateItem item);
+    }
 
     /** Parse the RSS XML into a ParseResult: title, lastUpdated, items. */
     public static ParseResult parse(String xml) throws Exception {
@@ -35,21 +74,66 @@ public final class RatesParser {
         if (safe.isEmpty()) {
             return new ParseResult("", "", new ArrayList<>());
         }
+        return parse(new StringReader(safe), null);
+    }
+
+    /**
+     * Parse straight from a character stream (no intermediate String copy of the feed).
+     * Anything before the XML declaration is skipped and parsing stops at {@code </rss>},
+     * so stray bytes around the XML block are tolerated.
+     */
+    public static ParseResult parse(Reader in, ItemListener listener) throws Exception {
+        BufferedReader br = new BufferedReader(in);
+        if (!skipToMarkup(br)) {
+            return new ParseResult("", "", new ArrayList<>());
+        }
+        XmlPullParser xpp = newParser();
+        xpp.setInput(br);
+        return parse(xpp, listener, base(DEFAULT_BASE));
+    }
+
+    /**
+     * Parse straight from a byte stream, e.g. {@code HttpURLConnection.getInputStream()}.
+     * A null charset lets the pull parser detect it from the XML declaration.
+     */
+    public static ParseResult parse(InputStream in, String charset, ItemListener listener)
+            throws Exception {
+        return parse(in, charset, listener, DEFAULT_BASE);
+    }
+
+    /** As above, for a feed quoting every currency against {@code base} (e.g. "USD"). */
+    public static ParseResult parse(InputStream in, String charset, ItemListener listener,
+                                    String base) throws Exception {
+        Base b = base(base);
+        BufferedInputStream bin = new BufferedInputStream(in);
+        if (!skipToMarkup(bin)) {
+            return new ParseResult("", "", new ArrayList<>());
+        }
+        XmlPullParser xpp = newParser();
+        xpp.setInput(bin, charset);
+        return parse(xpp, listener, b);
+    }
 
+    private static XmlPullParser newParser() throws Exception {
         XmlPullParserFactory factory = XmlPullParserFactory.newInstance();
         factory.setNamespaceAware(true);
-        XmlPullParser xpp = factory.newPullParser();
-        xpp.setInput(new StringReader(safe));
+        return factory.newPullParser();
+    }
 
+    private static ParseResult parse(XmlPullParser xpp, ItemListener listener, Base base)
+            throws Exception {
+        long t0 = System.nanoTime();
         String feedTitle = "";
         String updated   = "";
         List<RateItem> items = new ArrayList<>();
+        int rejected = 0;
 
         boolean inItem = false;
         String currentTag = null;
 
-        String itemTitle = null;
-        String itemDesc  = null;
+        // Item text is scanned straight from the parser's char buffer
+        RateTextScanner scanner = new RateTextScanner(base.code);
+        int[] span = new int[2];
 
         int event = xpp.getEventType();
         while (event != XmlPullParser.END_DOCUMENT) {
@@ -58,23 +142,26 @@ public final class RatesParser {
                     currentTag = xpp.getName();
                     if ("item".equalsIgnoreCase(currentTag)) {
                         inItem = true;
-                        itemTitle = null;
-                        itemDesc  = null;
+                        scanner.reset();
                     }
                     break;
 
                 case XmlPullParser.TEXT: {
-                    String t = xpp.getText();
-                    if (t != null) t = t.trim();
-                    if (t == null || t.isEmpty()) break;
+                    char[] buf = xpp.getTextCharacters(span);
+                    if (buf == null) break;
+                    int start = span[0], stop = span[0] + span[1];
+                    while (start < stop && buf[start] <= ' ') start++;
+                    while (stop > start && buf[stop - 1] <= ' ') stop--;
+                    if (start == stop) break;
 
                     if (inItem) {
                         if ("title".equalsIgnoreCase(currentTag)) {
-                            itemTitle = appendText(itemTitle, t);
+                            scanner.appendTitle(buf, start, stop - start);
                         } else if ("description".equalsIgnoreCase(currentTag)) {
-                            itemDesc = appendText(itemDesc, t);
+                            scanner.appendDescription(buf, start, stop - start);
                         }
                     } else {
+                        String t = new String(buf, start, stop - start);
                         if ("title".equalsIgnoreCase(currentTag)) {
                             feedTitle = t;
                         } else if ("pubDate".equalsIgnoreCase(currentTag)
@@ -88,13 +175,25 @@ public final class RatesParser {
                 case XmlPullParser.END_TAG:
                     String end = xpp.getName();
                     if ("item".equalsIgnoreCase(end) && inItem) {
-                        RateItem item = buildItemFrom(itemTitle, itemDesc);
-                        if (item != null) items.add(item);
+                        RateItem item = scanner.scanTitle()
+                                ? scanner.buildItem()
+                                : buildItemFrom(scanner.title(), scanner.description(), base);
+                        if (item != null) {
+                            items.add(item);
+                            if (listener != null) listener.onItem(item);
+                        } else {
+                            rejected++;
+                        }
                         inItem = false;
                     }
                     currentTag = null;
                     break;
             }
+            // Ignore whatever trails the closing </rss> (e.g. injected scripts)
+            if (event == XmlPullParser.END_TAG && xpp.getDepth() == 1
+                    && "rss".equalsIgnoreCase(xpp.getName())) {
+                break;
+            }
             event = xpp.next();
         }
 
@@ -105,58 +204,108 @@ public final class RatesParser {
 
         String titleOut = (feedTitle == null) ? "" : feedTitle.trim();
 
-        Log.d(TAG, "Parsed items: " + items.size());
+        Metrics.PARSE_TIME.recordNanos(System.nanoTime() - t0);
+        Metrics.PARSE_ITEMS.add(items.size());
+        Metrics.PARSE_REJECTED.add(rejected);
+
         return new ParseResult(titleOut, lastUpdated, items);
     }
 
     // --- helpers -------------------------------------------------------------------------------
 
-    private static String appendText(String base, String add) {
-        if (base == null || base.isEmpty()) return add;
-        if (add == null || add.isEmpty())   return base;
-        // Some parsers deliver TEXT in multiple chunks
-        return base + " " + add;
+    // How far ahead we look for "<?xml" before giving up and starting at the first '<'
+    private static final int PREAMBLE_LIMIT = 8 * 1024;
+
+    /**
+     * Drop anything before "&lt;?xml" (or before the first '<' if there is no declaration
+     * near the start). Returns false if the stream holds no markup.
+     */
+    private static boolean skipToMarkup(BufferedReader in) throws IOException {
+        char[] head = new char[PREAMBLE_LIMIT];
+        in.mark(PREAMBLE_LIMIT);
+        int n = 0, r;
+        while (n < head.length && (r = in.read(head, n, head.length - n)) > 0) n += r;
+        in.reset();
+
+        int at = markupStart(head, n);
+        if (at < 0 && n < head.length) return false;
+        if (at > 0) in.skip(at);
+        return true;
     }
 
-    private static RateItem buildItemFrom(String title, String desc) {
+    private static boolean skipToMarkup(BufferedInputStream in) throws IOException {
+        byte[] head = new byte[PREAMBLE_LIMIT];
+        in.mark(PREAMBLE_LIMIT);
+        int n = 0, r;
+        while (n < head.length && (r = in.read(head, n, head.length - n)) > 0) n += r;
+        in.reset();
+
+        char[] ascii = new char[n];
+        for (int i = 0; i < n; i++) ascii[i] = (char) (head[i] & 0xFF);
+        int at = markupStart(ascii, n);
+        if (at < 0 && n < head.length) return false;
+        if (at > 0) in.skip(at);
+        return true;
+    }
+
+    private static int markupStart(char[] head, int n) {
+        int firstTag = -1;
+        for (int i = 0; i < n; i++) {
+            if (head[i] != '<') continue;
+            if (firstTag < 0) firstTag = i;
+            if (i + 5 <= n && head[i + 1] == '?' && head[i + 2] == 'x'
+                    && head[i + 3] == 'm' && head[i + 4] == 'l') {
+                return i;
+            }
+        }
+        return firstTag;
+    }
+
+    /** Regex path, used for titles {@link RateTextScanner} doesn't recognise. */
+    static RateItem buildItemFrom(String title, String desc) {
+        return buildItemFrom(title, desc, base(DEFAULT_BASE));
+    }
+
+    private static RateItem buildItemFrom(String title, String desc, Base base) {
         if (title == null) title = "";
         if (desc  == null) desc  = "";
 
         // Identify the 3-letter code
-        String code = pickCode(title);
+        String code = pickCode(title, base);
 
         // Derive a readable name (right-hand side of slash, minus the (CODE))
-        String name = deriveName(title, code);
+        String name = deriveName(title, code, base);
 
         // Parse numeric rate from description (supports 1234, 12.34, 12,34)
-        Double rate = pickRate(desc);
+        FixedPoint.Value rate = pickRate(desc, base);
 
         if (code == null || rate == null) return null;
         if (name == null || name.isEmpty()) name = code;
+        code = CurrencyRegistry.code(CurrencyRegistry.ordinal(code)); // shared instance
 
-        // country field left blank
-        return new RateItem(code, name, "", rate);
+        // country field left blank; the rate keeps the feed's exact digits
+        return new RateItem(code, name, "", rate.unscaled, rate.scale);
     }
 
-    private static String pickCode(String title) {
+    private static String pickCode(String title, Base base) {
         String t = (title == null) ? "" : title.trim();
 
         Matcher m = CODE_IN_PARENS.matcher(t);
         if (m.find()) return m.group(1);
 
-        m = CODE_AFTER_SLASH.matcher(t);
+        m = base.codeAfterSlash.matcher(t);
         if (m.find()) return m.group(1);
 
         String code = null;
         m = ANY_TRIPLE.matcher(t);
         while (m.find()) {
             String c = m.group(1);
-            if (!"GBP".equals(c)) code = c;
+            if (!base.code.equals(c)) code = c;
         }
         return code;
     }
 
-    private static String deriveName(String title, String code) {
+    private static String deriveName(String title, String code, Base base) {
         if (title == null) return null;
         String t = title;
 
@@ -172,12 +321,12 @@ public final class RatesParser {
         t = t.replaceAll("\\(.*?\\)", "");
         if (t.contains("/")) t = t.substring(t.indexOf('/') + 1);
 
-        t = t.replace("GBP", "").replaceAll("\\s+", " ").trim();
+        t = t.replace(base.code, "").replaceAll("\\s+", " ").trim();
         if (t.isEmpty() || (code != null && t.equalsIgnoreCase(code))) return null;
         return t;
     }
 
-    private static Double pickRate(String desc) {
+    private static FixedPoint.Value pickRate(String desc, Base base) {
         if (desc == null) return null;
 
         String plain = desc.replaceAll("<.*?>", " ")
@@ -185,24 +334,17 @@ public final class RatesParser {
                 .trim();
 
 
-        Matcher m = FEED_RATE.matcher(plain);
+        Matcher m = base.feedRate.matcher(plain);
         String num = null;
         if (m.find()) {
             num = m.group(1);
         } else {
-            m = Pattern.compile("([0-9]+(?:[\\.,][0-9]+)?)").matcher(plain);
+            m = ANY_NUMBER.matcher(plain);
             while (m.find()) num = m.group(1);
         }
         if (num == null) return null;
 
-        // Convert European decimal comma to dot if needed
-        if (num.indexOf(',') >= 0 && num.indexOf('.') < 0) {
-            num = num.replace(',', '.');
-        }
-        try {
-            return Double.parseDouble(num);
-        } catch (Exception e) {
-            return null;
-        }
+        // Decimal point or European decimal comma
+        return FixedPoint.parse(num);
     }
 }
@@ -0,0 +1,77 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import java.util.Collections;
+import java.util.List;
+
+/** Parsed rates plus the header we persist with them (see SnapshotStore). */
+public final class RatesSnapshot {
+    public final long version;       // grows with every content change; 0 = not yet assigned
+    public final long fetchedAt;     // wall-clock ms of the fetch that produced these rates
+    public final long contentHash;   // hash of the feed body; equal hash = nothing changed
+    public final String title;
+    public final String pubDate;
+    public final List<RateItem> items;
+
+    public RatesSnapshot(long version, long fetchedAt, long contentHash, String title,
+                         String pubDate, List<RateItem> items) {
+        this.version = version;
+        this.fetchedAt = fetchedAt;
+        this.contentHash = contentHash;
+        this.title = title == null ? "" : title;
+        this.pubDate = pubDate == null ? "" : pubDate;
+        this.items = (items == null) ? Collections.emptyList() : items;
+    }
+
+    /**
+     * Wrap a fresh parse result whose body hashed to {@code contentHash} while it was read
+     * (see FeedHttp.Response#bodyHash). The version is assigned on persist.
+     */
+    public static RatesSnapshot of(ParseResult pr, long fetchedAt, long contentHash) {
+        return new RatesSnapshot(0, fetchedAt, contentHash, pr.title, pr.lastUpdated, pr.items);
+    }
+
+    /** As above, for rates that did not come from a body we streamed: hash the items. */
+    public static RatesSnapshot of(ParseResult pr, long fetchedAt) {
+        return of(pr, fetchedAt, hashOf(pr.items));
+    }
+
+    public RatesSnapshot withVersion(long v) {
+        return new RatesSnapshot(v, fetchedAt, contentHash, title, pubDate, items);
+    }
+
+    /** Back to the shape CurrencyRepository.applyParsed expects. */
+    public ParseResult toParseResult() {
+        return new ParseResult(title, pubDate, items);
+    }
+
+    /**
+     * 64-bit FNV-1a over code, name and exact rate of every item; trailing zeros are dropped
+     * first, so equal rates ({@link RateItem#sameRate}) hash alike.
+     */
+    static long hashOf(List<RateItem> items) {
+        long h = 0xcbf29ce484222325L;
+        if (items == null) return h;
+        for (RateItem it : items) {
+            h = mix(h, it.code);
+            h = mix(h, it.name);
+            long unscaled = it.rateUnscaled;
+            int scale = (unscaled == 0) ? 0 : it.rateScale;
+            while (scale > 0 && unscaled % 10 == 0) {
+                unscaled /= 10;
+                scale--;
+            }
+            for (int i = 0; i < 8; i++, unscaled >>>= 8) {
+                h = (h ^ (unscaled & 0xFF)) * 0x100000001b3L;
+            }
+            h = (h ^ (scale & 0xFFFF)) * 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private static long mix(long h, String s) {
+        if (s != null) {
+            for (int i = 0; i < s.length(); i++) h = (h ^ s.charAt(i)) * 0x100000001b3L;
+        }
+        return (h ^ 0x1F) * 0x100000001b3L; // field separator
+    }
+}
@@ -1,89 +1,164 @@
 package org.me.gcu.jang_sae_s2432618;
 
+import android.app.Application;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.Trace;
 import android.util.Log;
 
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
-import androidx.lifecycle.ViewModel;
 
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
-public class RatesViewModel extends ViewModel {
+public class RatesViewModel extends AndroidViewModel {
 
     private static final String TAG = "RatesViewModel";
     private static final long SEARCH_DEBOUNCE_MS = 200L;
 
-    private final CurrencyRepository repo = new CurrencyRepository();
+    private final CurrencyRepository repo;
 
-    // Expose immutable LiveData from the repository
-    public final LiveData<List<RateItem>> rates       = repo.rates();
-    public final LiveData<String>         lastUpdated = repo.lastUpdated();
-    public final LiveData<Boolean>        loading     = repo.loading();
-    public final LiveData<String>         error       = repo.error();
-    public final LiveData<String>         title       = repo.title();
+    // Expose immutable LiveData from the (process-wide) repository
+    public final LiveData<List<RateItem>> rates;
+    public final LiveData<String>         lastUpdated;
+    public final LiveData<Boolean>        loading;
+    public final LiveData<String>         error;
+    public final LiveData<String>         title;
+    public final LiveData<RatesDelta>     changes;
 
     // Query starts empty so the full list shows initially
     private final MutableLiveData<String> query = new MutableLiveData<>("");
 
-    // Filtered list based on `rates` + `query`
-    public final MediatorLiveData<List<RateItem>> filteredRates = new MediatorLiveData<>();
+    // Display rows + search index for `rates`, built off the main thread
+    private final MutableLiveData<RowSet> rows = new MutableLiveData<>();
+    private final RateRow.Factory rowFactory;
+
+    // Filtered rows based on `rows` + `query`
+    public final MediatorLiveData<List<RateRow>> filteredRates = new MediatorLiveData<>();
+
+    // Row building and filtering, in submission order on the shared CPU pool; never per-item
+    // work on the main thread. Everything goes through `scope`, cancelled in onCleared().
+    private final Executor worker = AppScheduler.get().serial(AppScheduler.Pool.CPU);
+    private final AppScheduler.Scope scope = AppScheduler.get().newScope(TAG);
+    // Bumped for every new query or row set; work for an older value is dropped
+    private final AtomicLong filterGeneration = new AtomicLong();
 
-    // Background + main thread helpers
-    private final ExecutorService io = Executors.newSingleThreadExecutor();
+    // Main thread helper
     private final Handler main = new Handler(Looper.getMainLooper());
 
     private Runnable pendingSearch;
 
-    public RatesViewModel() {
+    // Last search result, narrowed as the user keeps typing (worker thread only)
+    private SearchIndex.Hits lastHits;
+    private RowSet lastHitsFrom;
+
+    /** Rows of one rates snapshot plus the index that searches them. */
+    private static final class RowSet {
+        final List<RateRow> rows;
+        final SearchIndex index;
+
+        RowSet(List<RateRow> rows, SearchIndex index) {
+            this.rows = rows;
+            this.index = index;
+        }
+    }
+
+    public RatesViewModel(@NonNull Application app) {
+        super(app);
+        repo        = CurrencyRepository.get(app);
+        rates       = repo.rates();
+        lastUpdated = repo.lastUpdated();
+        loading     = repo.loading();
+        error       = repo.error();
+        title       = repo.title();
+        changes     = repo.changes();
+        rowFactory  = new RateRow.Factory(app);
+
         filteredRates.setValue(new ArrayList<>());
 
-        // Recompute when the data changes...
+        // Format rows in the background whenever the data changes (once per snapshot)...
         filteredRates.addSource(rates, list -> {
             Log.d(TAG, "rates changed size=" + (list == null ? 0 : list.size()));
-            recompute(list, query.getValue());
+            if (list == null) return;
+            scope.launch(worker, () ->
+                    rows.postValue(new RowSet(rowFactory.rowsFor(list, repo.rollingStats()),
+                            new SearchIndex(list))));
         });
 
+        // ...then refilter when the rows are ready...
+        filteredRates.addSource(rows, set -> scheduleFilter(set, query.getValue()));
+
         // ...or when the query changes
         filteredRates.addSource(query, q -> {
             Log.d(TAG, "query changed='" + q + "'");
-            recompute(rates.getValue(), q);
+            scheduleFilter(rows.getValue(), q);
         });
     }
 
-    private void recompute(List<RateItem> list, String q) {
-        if (list == null) {
+    // Main thread: supersede whatever filter is queued or running and queue this one
+    private void scheduleFilter(RowSet set, String q) {
+        final long gen = filterGeneration.incrementAndGet();
+        if (set == null) {
             filteredRates.setValue(new ArrayList<>());
             return;
         }
+        scope.launch(worker, () -> {
+            long t0 = System.nanoTime();
+            List<RateRow> out;
+            Trace.beginSection("rates:filter");
+            try {
+                out = filter(set, q, gen);
+            } finally {
+                Trace.endSection();
+            }
+            if (out == null) return; // superseded
+            Metrics.FILTER_TIME.recordNanos(System.nanoTime() - t0);
+            main.post(() -> {
+                // Only the latest query / data version is ever shown
+                if (gen == filterGeneration.get()) filteredRates.setValue(out);
+            });
+        });
+    }
+
+    private boolean stale(long gen) { return gen != filterGeneration.get(); }
 
-        final String needle = (q == null) ? "" : q.trim().toLowerCase(Locale.ROOT);
+    // Worker thread; null if a newer query or row set arrived meanwhile
+    private List<RateRow> filter(RowSet set, String q, long gen) {
+        if (stale(gen)) return null;
+
+        final String needle = (q == null) ? "" : q.trim();
         if (needle.isEmpty()) {
-            // Always give a new list instance so ListAdapter detects changes consistently
-            filteredRates.setValue(new ArrayList<>(list));
-            return;
+            // A new row list is built only when rates change: no copy
+            lastHits = null;
+            return set.rows;
         }
 
-        List<RateItem> out = new ArrayList<>();
-        for (RateItem r : list) {
-            String code = safe(r.code);
-            String name = safe(r.name);
-            String country = safe(r.country);
-            if (code.contains(needle) || name.contains(needle) || country.contains(needle)) {
-                out.add(r);
-            }
-        }
-        filteredRates.setValue(out);
-    }
+        // Appending to the query only re-checks the previous hits of the same snapshot
+        SearchIndex.Hits hits = (lastHitsFrom == set)
+                ? set.index.narrow(lastHits, needle)
+                : set.index.query(needle);
+        lastHits = hits;
+        lastHitsFrom = set;
+        if (stale(gen)) return null;
 
-    private static String safe(String v) {
-        return v == null ? "" : v.toLowerCase(Locale.ROOT);
+        int n = hits.positions.length;
+        List<RateRow> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            if ((i & 255) == 255 && stale(gen)) return null;
+            out.add(set.rows.get(hits.positions[i]));
+        }
+        return out;
     }
 
     /** Immediate search (no debounce). */
@@ -103,45 +178,102 @@ public class RatesViewModel extends ViewModel {
     }
 
 
-    /** Parse RSS XML off the main thread, then push into the repository. */
-    public void refreshFromRssAsync(String xml) {
-        if (xml == null || xml.trim().isEmpty()) return;
+    /**
+     * A snapshot version was announced (0 = "whatever is persisted"). Cheap to call on every
+     * resume: nothing is read or parsed unless the repository is behind that version.
+     */
+    public void onSnapshotVersion(long version) {
+        repo.ensureVersion(version);
+    }
 
+    /**
+     * Download + parse the configured feeds in parallel, off the main thread (shared with
+     * FetchRssWorker). One slow or failed secondary feed never holds back the GBP one.
+     * Even the prefs holding the feed list are read on a background thread.
+     */
+    public void refreshFromNetwork() {
         repo.setLoading(true);
-        io.execute(() -> {
-            try {
-                ParseResult pr = RatesParser.parse(xml);
-                Log.d(TAG, "parsed ok items=" + (pr.items == null ? 0 : pr.items.size()));
-                repo.applyParsed(pr); // posts to LiveData; observers will fire
-                // Re-apply current filter on main thread
-                main.post(() -> setQuery(query.getValue()));
-            } catch (Exception e) {
-                Log.e(TAG, "refreshFromRssAsync", e);
-                repo.setError("Parse error: " + e.getMessage());
+        try {
+            AppScheduler.get().executor(AppScheduler.Pool.DISK).execute(this::startRefresh);
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, "disk pool saturated, refresh skipped", e);
+            repo.setLoading(false);
+        }
+    }
+
+    // Background thread: the first prefs read may wait for the file to load
+    private void startRefresh() {
+        List<MultiFeedFetcher.Source> sources = MultiFeedFetcher.configured(getApplication());
+        // Persisting writes and syncs files: on DISK, never on the network or timer thread that
+        // completed the fetch
+        MultiFeedFetcher.get(getApplication()).fetchAll(sources).thenAcceptAsync(merged -> {
+            FeedFetcher.Result res = merged.toPivotResult();
+            if (res == null) {
+                Throwable cause = merged.error();
+                if (cause instanceof XmlPullParserException) {
+                    reportParseError((Exception) cause);
+                } else {
+                    String why = (cause == null) ? "no feeds configured"
+                            : (cause.getMessage() != null) ? cause.getMessage()
+                            : cause.getClass().getSimpleName();
+                    repo.setError("Network error: " + why);
+                    repo.setLoading(false);
+                }
+                return;
+            }
+            if (res.isNotModified()) {
+                // The snapshot (applied in onResume) is current
+                FetchRssWorker.keepValidators(getApplication(), res.validators);
+                repo.setUpdatedNow();
+                repo.setLoading(false);
+            } else if (res.parsed.items.isEmpty()) {
+                repo.setError("No data received. Check connection or try again.");
+                repo.setLoading(false);
+            } else {
+                // Same path as the worker: persist, then publish to the repository
+                try {
+                    FetchRssWorker.persist(getApplication(), res);
+                } catch (IOException e) {
+                    Log.w(TAG, "snapshot write failed", e);
+                    repo.publish(RatesSnapshot.of(res.parsed, System.currentTimeMillis())
+                            .withVersion(repo.appliedVersion() + 1));
+                }
                 repo.setLoading(false);
+                main.post(() -> setQuery(""));
             }
+        }, AppScheduler.get().executor(AppScheduler.Pool.DISK)).whenComplete((v, e) -> {
+            if (e == null) return;
+            Log.e(TAG, "refresh failed", e);
+            repo.setError("Refresh failed. Try again.");
+            repo.setLoading(false);
         });
     }
 
-    /**
-     * Convenience: parse and update using the repository helper.
-     * NOTE: This runs on the caller's thread; prefer refreshFromRssAsync() for UI code.
-     */
-    public void refreshFromRss(String rssText) {
-        repo.updateFromRssString(rssText);
+    /** Flag a parse failure coming from a worker thread. */
+    private void reportParseError(Exception e) {
+        Log.e(TAG, "parse failed", e);
+        repo.setError("Parse error: " + e.getMessage());
+        repo.setLoading(false);
     }
 
     /** Bump "Updated:" to now (used by KEY_FETCH_TS listener). */
     public void markRefreshedNow() { repo.setUpdatedNow(); }
 
+    /** The loaded rate for {@code code} (e.g. "usd"), or null; an array read, no list scan. */
+    public RateItem rateFor(String code) {
+        return (code == null) ? null
+                : repo.item(CurrencyRegistry.find(code.toUpperCase(Locale.ROOT)));
+    }
+
     @Override
     protected void onCleared() {
-        // Cancel any pending debounced runnable and stop the executor
+        // Cancel any pending debounced runnable (the repository outlives this ViewModel)
         if (pendingSearch != null) {
             main.removeCallbacks(pendingSearch);
             pendingSearch = null;
         }
-        io.shutdownNow();
+        filterGeneration.incrementAndGet();
+        scope.close();
         super.onCleared();
     }
 }
@@ -0,0 +1,216 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Rolling min / max / mean / standard deviation of every currency's rate over fixed time
+ * windows, updated incrementally as snapshots arrive.
+ *
+ * Each currency keeps its points once (for the longest window) in a ring; each window keeps
+ * a start index, running sums and monotonic deques for its min and max. Adding a point and
+ * evicting the ones that left a window are amortised O(1), so a refresh costs
+ * O(currencies × windows) however much history is held, and reads never scan points.
+ * Windows are {@code (newest - span, newest]}, per currency. Tracks are indexed by
+ * {@link CurrencyRegistry} ordinal. Thread-safe.
+ */
+public final class RollingStats {
+
+    private static final long HOUR_MS = 60L * 60 * 1000;
+
+    public enum Window {
+        H1(HOUR_MS), H24(24 * HOUR_MS), D7(7 * 24 * HOUR_MS), D30(30 * 24 * HOUR_MS);
+
+        public final long millis;
+
+        Window(long millis) { this.millis = millis; }
+    }
+
+    private static final Window[] WINDOWS = Window.values(); // shortest first
+
+    /** One window of one currency. {@code first} and {@code last} are its oldest and newest rates. */
+    public static final class Summary {
+        public final int count;
+        public final double min, max, mean, stdDev;
+        public final double first, last;
+        public final long firstTime, lastTime;
+
+        Summary(int count, double min, double max, double mean, double stdDev,
+                double first, double last, long firstTime, long lastTime) {
+            this.count = count;
+            this.min = min;
+            this.max = max;
+            this.mean = mean;
+            this.stdDev = stdDev;
+            this.first = first;
+            this.last = last;
+            this.firstTime = firstTime;
+            this.lastTime = lastTime;
+        }
+
+        /** Relative change over the window, in percent (0 with a single point). */
+        public double changePercent() { return (last - first) / first * 100.0; }
+    }
+
+    private Track[] tracks = new Track[CurrencyRegistry.size()]; // by ordinal
+    private int size;
+
+    /**
+     * Add one snapshot. Currencies whose newest point is not older than {@code time} are
+     * left as they are; non-positive rates are skipped.
+     */
+    public synchronized void add(long time, List<RateItem> items) {
+        for (RateItem it : items) add(it.ordinal, time, it.rate);
+    }
+
+    /** Add points for one currency, oldest first (e.g. from {@link HistoryStore#range}). */
+    public synchronized void addSeries(String code, long[] times, double[] values) {
+        int ordinal = CurrencyRegistry.ordinal(code);
+        for (int i = 0; i < times.length; i++) add(ordinal, times[i], values[i]);
+    }
+
+    private void add(int ordinal, long time, double value) {
+        if (ordinal < 0 || !(value > 0) || Double.isInfinite(value)) return;
+        if (ordinal >= tracks.length) {
+            tracks = Arrays.copyOf(tracks, Math.max(ordinal + 1, CurrencyRegistry.size()));
+        }
+        Track t = tracks[ordinal];
+        if (t == null) {
+            tracks[ordinal] = t = new Track(value);
+            size++;
+        }
+        t.add(time, value);
+    }
+
+    private Track track(int ordinal) {
+        return (ordinal >= 0 && ordinal < tracks.length) ? tracks[ordinal] : null;
+    }
+
+    /** Stats for {@code code} over {@code w}; null if it has no points. */
+    public synchronized Summary summary(String code, Window w) {
+        Track t = track(CurrencyRegistry.find(code));
+        return t == null ? null : t.summary(w.ordinal());
+    }
+
+    /**
+     * {@code code}'s change over {@code w} in percent, newest against oldest point in the
+     * window; NaN with fewer than two points. Allocation-free.
+     */
+    public double changePercent(String code, Window w) {
+        return changePercent(CurrencyRegistry.find(code), w);
+    }
+
+    /** As {@link #changePercent(String, Window)} for a {@link CurrencyRegistry} ordinal. */
+    public synchronized double changePercent(int ordinal, Window w) {
+        Track t = track(ordinal);
+        if (t == null) return Double.NaN;
+        Win win = t.wins[w.ordinal()];
+        if (t.end - win.start < 2) return Double.NaN;
+        double first = t.value(win.start), last = t.value(t.end - 1);
+        return (last - first) / first * 100.0;
+    }
+
+    /** Currencies with at least one point. */
+    public synchronized int size() { return size; }
+
+    // --- internals -----------------------------------------------------------------------------
+
+    // Points are addressed by sequence number; the ring holds [start of longest window, end)
+    private static final class Track {
+        final double shift; // sums are kept around the first rate seen, for precision
+        long[] times = new long[16];
+        double[] values = new double[16];
+        long end; // next sequence number
+        final Win[] wins = new Win[WINDOWS.length];
+
+        Track(double shift) {
+            this.shift = shift;
+            for (int i = 0; i < wins.length; i++) wins[i] = new Win(WINDOWS[i].millis);
+        }
+
+        long time(long seq)    { return times[(int) (seq & (times.length - 1))]; }
+        double value(long seq) { return values[(int) (seq & (values.length - 1))]; }
+
+        void add(long time, double value) {
+            if (end > 0 && time <= time(end - 1)) return;
+            long oldest = wins[wins.length - 1].start;
+            if (end - oldest == times.length) grow(oldest);
+            int slot = (int) (end & (times.length - 1));
+            times[slot] = time;
+            values[slot] = value;
+            long seq = end++;
+            double d = value - shift;
+            for (Win w : wins) {
+                w.sum += d;
+                w.sumSq += d * d;
+                while (!w.maxQ.isEmpty() && value(w.maxQ.peekLast()) <= value) w.maxQ.pollLast();
+                w.maxQ.addLast(seq);
+                while (!w.minQ.isEmpty() && value(w.minQ.peekLast()) >= value) w.minQ.pollLast();
+                w.minQ.addLast(seq);
+                // Evict what is now older than the window
+                while (time(w.start) <= time - w.span) {
+                    double e = value(w.start) - shift;
+                    w.sum -= e;
+                    w.sumSq -= e * e;
+                    if (w.maxQ.peekFirst() == w.start) w.maxQ.pollFirst();
+                    if (w.minQ.peekFirst() == w.start) w.minQ.pollFirst();
+                    w.start++;
+                }
+            }
+        }
+
+        // Double the ring, keeping sequence numbers valid
+        private void grow(long oldest) {
+            int n = times.length;
+            long[] t = new long[n * 2];
+            double[] v = new double[n * 2];
+            for (long s = oldest; s < end; s++) {
+                t[(int) (s & (2 * n - 1))] = times[(int) (s & (n - 1))];
+                v[(int) (s & (2 * n - 1))] = values[(int) (s & (n - 1))];
+            }
+            times = t;
+            values = v;
+        }
+
+        Summary summary(int w) {
+            Win win = wins[w];
+            int n = (int) (end - win.start);
+            double mean = win.sum / n;
+            double var = Math.max(0, win.sumSq / n - mean * mean); // population variance
+            return new Summary(n, value(win.minQ.peekFirst()), value(win.maxQ.peekFirst()),
+                    shift + mean, Math.sqrt(var), value(win.start), value(end - 1),
+                    time(win.start), time(end - 1));
+        }
+    }
+
+    private static final class Win {
+        final long span;
+        long start;
+        double sum, sumSq;
+        final SeqDeque minQ = new SeqDeque(), maxQ = new SeqDeque();
+
+        Win(long span) { this.span = span; }
+    }
+
+    /** Growable ring deque of sequence numbers (no boxing). */
+    private static final class SeqDeque {
+        private long[] a = new long[8];
+        private int head, size;
+
+        boolean isEmpty() { return size == 0; }
+        long peekFirst()  { return a[head]; }
+        long peekLast()   { return a[(head + size - 1) & (a.length - 1)]; }
+        void pollFirst()  { head = (head + 1) & (a.length - 1); size--; }
+        void pollLast()   { size--; }
+
+        void addLast(long v) {
+            if (size == a.length) {
+                long[] b = new long[a.length * 2];
+                for (int i = 0; i < size; i++) b[i] = a[(head + i) & (a.length - 1)];
+                a = b;
+                head = 0;
+            }
+            a[(head + size++) & (a.length - 1)] = v;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Substring search over code, name and country of one rates snapshot.
+ *
+ * Built once per snapshot: the fields are lowercased up front and every 1-, 2- and 3-char
+ * gram of each field gets a sorted posting list of item positions. A query of up to three
+ * chars is a single posting lookup; a longer one intersects its trigram postings and checks
+ * the few survivors. When the user types one more char, {@link #narrow} only re-checks the
+ * previous hits.
+ *
+ * Hits are ranked: exact code match, then a field (or a word of it) starting with the query,
+ * then any other substring; ties keep feed order. Immutable and thread-safe once built.
+ */
+public final class SearchIndex {
+
+    private static final int[] NONE = new int[0];
+
+    /** Ranked positions into the indexed list for one query. */
+    public static final class Hits {
+        public final String needle;   // lowercased, trimmed query
+        public final int[] positions; // best first
+
+        Hits(String needle, int[] positions) {
+            this.needle = needle;
+            this.positions = positions;
+        }
+    }
+
+    private final int size;
+    private final String[] codes;
+    private final String[][] fields;   // per item: lowercased code, name, country
+    private final Map<Long, int[]> grams;
+
+    public SearchIndex(List<RateItem> items) {
+        size = items.size();
+        codes = new String[size];
+        fields = new String[size][];
+
+        Map<Long, IntList> build = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            RateItem r = items.get(i);
+            String code = lower(r.code);
+            codes[i] = code;
+            fields[i] = new String[] { code, lower(r.name), lower(r.country) };
+            for (String f : fields[i]) {
+                for (int n = 1; n <= 3; n++) {
+                    for (int s = 0; s + n <= f.length(); s++) {
+                        build.computeIfAbsent(key(f, s, n), k -> new IntList()).add(i);
+                    }
+                }
+            }
+        }
+
+        grams = new HashMap<>(build.size() * 2);
+        for (Map.Entry<Long, IntList> e : build.entrySet()) {
+            grams.put(e.getKey(), e.getValue().toArray());
+        }
+    }
+
+    public int size() { return size; }
+
+    /** Everything matching {@code query}; an empty query matches all, in feed order. */
+    public Hits query(String query) {
+        String needle = normalise(query);
+        if (needle.isEmpty()) return new Hits(needle, all());
+        return new Hits(needle, rank(needle, candidates(needle), needle.length() > 3));
+    }
+
+    /**
+     * Like {@link #query}, but when {@code query} extends {@code previous.needle} only the
+     * previous hits are re-checked (the usual case while typing).
+     */
+    public Hits narrow(Hits previous, String query) {
+        String needle = normalise(query);
+        if (previous == null || previous.needle.isEmpty() || !needle.startsWith(previous.needle)) {
+            return query(needle);
+        }
+        if (needle.equals(previous.needle)) return previous;
+
+        int[] prev = previous.positions.clone();
+        Arrays.sort(prev); // back to feed order so ties rank as in query()
+        return new Hits(needle, rank(needle, prev, true));
+    }
+
+    // Posting lookup (exact for <= 3 chars) or trigram intersection (needs verifying)
+    private int[] candidates(String needle) {
+        if (needle.length() <= 3) return postings(key(needle, 0, needle.length()));
+
+        int count = needle.length() - 2;
+        int[][] lists = new int[count][];
+        for (int s = 0; s < count; s++) {
+            lists[s] = postings(key(needle, s, 3));
+            if (lists[s].length == 0) return NONE;
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length)); // smallest first
+        int[] acc = lists[0];
+        for (int k = 1; k < lists.length && acc.length > 0; k++) acc = intersect(acc, lists[k]);
+        return acc;
+    }
+
+    private int[] rank(String needle, int[] candidates, boolean verify) {
+        int[] out = new int[candidates.length];
+        int[] tier = new int[candidates.length];
+        int n = 0;
+        int[] counts = new int[3];
+        for (int i : candidates) {
+            int t = tier(i, needle, verify);
+            if (t < 0) continue;
+            out[n] = i;
+            tier[n++] = t;
+            counts[t]++;
+        }
+
+        // Stable counting sort by tier
+        int[] start = { 0, counts[0], counts[0] + counts[1] };
+        int[] ranked = new int[n];
+        for (int k = 0; k < n; k++) ranked[start[tier[k]]++] = out[k];
+        return ranked;
+    }
+
+    /** 0 exact code, 1 prefix of a field or word, 2 other substring, -1 no match. */
+    private int tier(int i, String needle, boolean verify) {
+        if (codes[i].equals(needle)) return 0;
+        boolean found = !verify;
+        for (String f : fields[i]) {
+            int at = f.indexOf(needle);
+            while (at >= 0) {
+                if (at == 0 || !Character.isLetterOrDigit(f.charAt(at - 1))) return 1;
+                found = true;
+                at = f.indexOf(needle, at + 1);
+            }
+        }
+        return found ? 2 : -1;
+    }
+
+    private int[] postings(long key) {
+        int[] p = grams.get(key);
+        return p == null ? NONE : p;
+    }
+
+    private int[] all() {
+        int[] a = new int[size];
+        for (int i = 0; i < size; i++) a[i] = i;
+        return a;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else { out[n++] = a[i]; i++; j++; }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    // Gram length in the top bits, then up to three 16-bit chars
+    private static long key(String s, int start, int n) {
+        long k = n;
+        for (int i = 0; i < n; i++) k = (k << 16) | s.charAt(start + i);
+        return k;
+    }
+
+    private static String normalise(String q) {
+        return q == null ? "" : q.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String lower(String v) {
+        return v == null ? "" : v.toLowerCase(Locale.ROOT);
+    }
+
+    // Growable int[] for the postings under construction; skips repeats of the last id
+    private static final class IntList {
+        int[] a = new int[4];
+        int n;
+
+        void add(int v) {
+            if (n > 0 && a[n - 1] == v) return;
+            if (n == a.length) a = Arrays.copyOf(a, n * 2);
+            a[n++] = v;
+        }
+
+        int[] toArray() { return Arrays.copyOf(a, n); }
+    }
+}
@@ -0,0 +1,180 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import android.content.Context;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary file holding the last parsed rates, so a cold start can render them
+ * without touching SharedPreferences or running RatesParser.
+ *
+ * Layout (big-endian):
+ * <pre>
+ *   int    magic 'RSNP'
+ *   short  format
+ *   long   version
+ *   long   fetchedAt
+ *   long   contentHash
+ *   int    item count
+ *   str    title, str pubDate
+ *   count x { str code, str name, long rateUnscaled, short rateScale }
+ * </pre>
+ * where {@code str} is an unsigned-short byte length followed by UTF-8 bytes.
+ * Writes go to a temp file which is synced and renamed over the old one, so readers only
+ * ever see a complete snapshot. Reads map the file instead of streaming it.
+ */
+public final class SnapshotStore {
+
+    public static final String FILE_NAME = "rates.snap";
+
+    private static final int   MAGIC  = 0x52534E50; // "RSNP"
+    private static final short FORMAT = 3;           // 2: added version, 3: exact rates
+    private static final int   HEADER_BYTES = 4 + 2 + 8 + 8 + 8 + 4;
+    private static final int   MIN_ITEM_BYTES = 2 + 2 + 8 + 2; // empty code and name
+
+    /** The fixed-size part of the file, readable without decoding any items. */
+    public static final class Header {
+        public final long version;
+        public final long fetchedAt;
+        public final long contentHash;
+        public final int count;
+
+        Header(long version, long fetchedAt, long contentHash, int count) {
+            this.version = version;
+            this.fetchedAt = fetchedAt;
+            this.contentHash = contentHash;
+            this.count = count;
+        }
+    }
+
+    private final File file;
+
+    public SnapshotStore(File file) {
+        this.file = file;
+    }
+
+    /** The app's snapshot file under getFilesDir(). */
+    public static SnapshotStore get(Context context) {
+        return new SnapshotStore(new File(context.getApplicationContext().getFilesDir(), FILE_NAME));
+    }
+
+    /** Atomically replace the stored snapshot. */
+    public void write(RatesSnapshot s) throws IOException {
+        byte[] title = utf8(s.title);
+        byte[] pub   = utf8(s.pubDate);
+        byte[][] codes = new byte[s.items.size()][];
+        byte[][] names = new byte[s.items.size()][];
+
+        int size = HEADER_BYTES + 2 + title.length + 2 + pub.length;
+        for (int i = 0; i < codes.length; i++) {
+            RateItem it = s.items.get(i);
+            codes[i] = utf8(it.code);
+            names[i] = utf8(it.name);
+            size += 2 + codes[i].length + 2 + names[i].length + 8 + 2;
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        buf.putInt(MAGIC).putShort(FORMAT)
+                .putLong(s.version).putLong(s.fetchedAt).putLong(s.contentHash).putInt(codes.length);
+        putStr(buf, title);
+        putStr(buf, pub);
+        for (int i = 0; i < codes.length; i++) {
+            putStr(buf, codes[i]);
+            putStr(buf, names[i]);
+            RateItem it = s.items.get(i);
+            buf.putLong(it.rateUnscaled).putShort((short) it.rateScale);
+        }
+        buf.flip();
+
+        // A temp file of our own: concurrent writers never share (or truncate) one
+        File tmp = Files.createTempFile(file.getAbsoluteFile().getParentFile().toPath(),
+                file.getName(), ".tmp").toFile();
+        try {
+            try (FileOutputStream out = new FileOutputStream(tmp)) {
+                FileChannel ch = out.getChannel();
+                while (buf.hasRemaining()) ch.write(buf);
+                out.getFD().sync();
+            }
+            Files.move(tmp.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp.toPath()); // no-op once moved
+        }
+    }
+
+    /** Full snapshot, or null if there is none (or it is unreadable / an old format). */
+    public RatesSnapshot read() throws IOException {
+        MappedByteBuffer buf = map();
+        if (buf == null) return null;
+        try {
+            long version = buf.getLong();
+            long fetchedAt = buf.getLong();
+            long hash = buf.getLong();
+            int count = buf.getInt();
+
+            byte[] scratch = new byte[256];
+            String title = getStr(buf, scratch);
+            String pub   = getStr(buf, scratch);
+            // A corrupt count must not size the list: it could be negative or need gigabytes
+            if (count < 0 || (long) count * MIN_ITEM_BYTES > buf.remaining()) return null;
+            List<RateItem> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String code = getStr(buf, scratch);
+                String name = getStr(buf, scratch);
+                long unscaled = buf.getLong();
+                int scale = buf.getShort();
+                items.add(new RateItem(code, name, "", unscaled, scale));
+            }
+            return new RatesSnapshot(version, fetchedAt, hash, title, pub, items);
+        } catch (RuntimeException e) {
+            return null; // truncated (BufferUnderflowException) or otherwise undecodable
+        }
+    }
+
+    /** Header only (O(1) however many items); null if there is no usable snapshot. */
+    public Header readHeader() throws IOException {
+        MappedByteBuffer buf = map();
+        if (buf == null) return null;
+        return new Header(buf.getLong(), buf.getLong(), buf.getLong(), buf.getInt());
+    }
+
+    // Maps the file and checks magic/format; positioned just after them, or null.
+    private MappedByteBuffer map() throws IOException {
+        if (!file.isFile() || file.length() < HEADER_BYTES) return null;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel ch = raf.getChannel()) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if (buf.getInt() != MAGIC || buf.getShort() != FORMAT) return null;
+            return buf;
+        }
+    }
+
+    private static byte[] utf8(String s) {
+        byte[] b = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+        if (b.length > 0xFFFF) throw new IllegalArgumentException("string too long: " + b.length);
+        return b;
+    }
+
+    private static void putStr(ByteBuffer buf, byte[] b) {
+        buf.putShort((short) b.length);
+        buf.put(b);
+    }
+
+    private static String getStr(ByteBuffer buf, byte[] scratch) {
+        int len = buf.getShort() & 0xFFFF;
+        if (len > scratch.length) scratch = new byte[len];
+        buf.get(scratch, 0, len);
+        return new String(scratch, 0, len, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,154 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AppSchedulerTest {
+
+    private final AppScheduler scheduler = new AppScheduler(2, 2, 1, 4);
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void serialLaneKeepsOrderOnAMultiThreadPool() throws Exception {
+        Executor lane = scheduler.serial(AppScheduler.Pool.CPU);
+        List<Integer> seen = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(50);
+        for (int i = 0; i < 50; i++) {
+            final int n = i;
+            lane.execute(() -> { seen.add(n); done.countDown(); });
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 50; i++) assertEquals(Integer.valueOf(i), seen.get(i));
+    }
+
+    @Test
+    public void closingAScopeCancelsQueuedWorkAndDropsNewWork() throws Exception {
+        Executor disk = scheduler.executor(AppScheduler.Pool.DISK); // one thread
+        AppScheduler.Scope scope = scheduler.newScope("test");
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger ran = new AtomicInteger();
+
+        scope.launch(disk, () -> {
+            started.countDown();
+            try { release.await(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        });
+        Future<?> queued = scope.launch(disk, ran::incrementAndGet);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        scope.close();
+        release.countDown();
+        assertTrue(queued.isCancelled());
+        assertTrue(scope.launch(disk, ran::incrementAndGet).isCancelled());
+
+        // Drain the pool and check nothing from the scope ran
+        CountDownLatch drained = new CountDownLatch(1);
+        disk.execute(drained::countDown);
+        assertTrue(drained.await(5, TimeUnit.SECONDS));
+        assertEquals(0, ran.get());
+    }
+
+    @Test
+    public void fullQueueRejectsAndCounts() throws Exception {
+        Executor disk = scheduler.executor(AppScheduler.Pool.DISK);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable block = () -> {
+            try { release.await(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        };
+        disk.execute(block);                          // running
+        for (int i = 0; i < 4; i++) disk.execute(() -> { }); // fills the queue of 4
+        Thread.sleep(50);
+        try {
+            disk.execute(() -> { });
+            fail("expected rejection");
+        } catch (RejectedExecutionException expected) {
+            // bounded
+        }
+        AppScheduler.Stats s = scheduler.stats(AppScheduler.Pool.DISK);
+        assertEquals(1, s.rejected);
+        assertEquals(4, s.queueDepth);
+        release.countDown();
+    }
+
+    @Test
+    public void serialLaneSurvivesAFullPool() throws Exception {
+        Executor disk = scheduler.executor(AppScheduler.Pool.DISK); // one thread, queue of 4
+        Executor lane = scheduler.serial(AppScheduler.Pool.DISK);
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        List<Throwable> uncaught = Collections.synchronizedList(new ArrayList<>());
+        Thread.UncaughtExceptionHandler old = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler((t, e) -> uncaught.add(e));
+        try {
+            CountDownLatch releaseA = new CountDownLatch(1), releaseFill = new CountDownLatch(1);
+            CountDownLatch fillerStarted = new CountDownLatch(1);
+            lane.execute(() -> {
+                try { releaseA.await(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+                seen.add("A");
+            });
+            lane.execute(() -> seen.add("B")); // waits behind A
+            disk.execute(() -> {
+                fillerStarted.countDown();
+                try { releaseFill.await(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+            });
+            for (int i = 0; i < 3; i++) disk.execute(() -> { });
+            Thread.sleep(50);
+
+            // A finishes while the pool queue is full: B cannot be handed over
+            releaseA.countDown();
+            assertTrue(fillerStarted.await(5, TimeUnit.SECONDS));
+            releaseFill.countDown();
+            CountDownLatch drained = new CountDownLatch(1);
+            disk.execute(drained::countDown);
+            assertTrue(drained.await(5, TimeUnit.SECONDS));
+            assertEquals(Collections.singletonList("A"), seen);
+            assertTrue(uncaught.toString(), uncaught.isEmpty());
+
+            // The next execute restarts the lane, still in order
+            CountDownLatch done = new CountDownLatch(1);
+            lane.execute(() -> { seen.add("C"); done.countDown(); });
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(java.util.Arrays.asList("A", "B", "C"), seen);
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(old);
+        }
+    }
+
+    @Test
+    public void poolLatenciesUseTheMetricsHistogram() throws Exception {
+        Executor cpu = scheduler.executor(AppScheduler.Pool.CPU);
+        for (int i = 0; i < 3; i++) cpu.execute(() -> sleep(20));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        AppScheduler.Stats s;
+        while ((s = scheduler.stats(AppScheduler.Pool.CPU)).completed < 3) {
+            assertTrue(System.nanoTime() < deadline);
+            Thread.sleep(5);
+        }
+        assertTrue("p50=" + s.runP50, s.runP50 >= 20_000 && s.runP50 < 1_000_000);
+        assertTrue(s.toString(), s.toString().contains(" run: n=3 mean="));
+        assertTrue(s.toString(), s.toString().endsWith(" us"));
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class BatchConverterTest {
+
+    private static final List<RateItem> ITEMS = Arrays.asList(
+            new RateItem("USD", "US Dollar", "", 1.3470),
+            new RateItem("JPY", "Japanese Yen", "", 203.5127),
+            new RateItem("IDR", "Indonesian Rupiah", "", 21859.8214),
+            new RateItem("KWD", "Kuwaiti Dinar", "", 0.4117));
+
+    private static final BatchConverter CONV = new BatchConverter(ITEMS);
+
+    @Test
+    public void oneAmountIntoEveryCurrency() {
+        long[] out = new long[CONV.size()];
+        CONV.oneToAll(FixedPoint.parse("1234.56"), BatchConverter.PIVOT, out);
+        assertEquals(166295, out[0]);      // 1662.952320 -> 1662.95 USD
+        assertEquals(25124864, out[1]);    // 251248.6389... -> 251248.64 JPY
+        assertEquals("1662.95", FixedPoint.toPlainString(out[0], BatchConverter.RESULT_SCALE));
+    }
+
+    @Test
+    public void crossPairsGoThroughGbp() {
+        int usd = CONV.indexOf("USD"), jpy = CONV.indexOf("JPY");
+        // 100 USD -> GBP -> JPY
+        BigDecimal exact = new BigDecimal("100").multiply(new BigDecimal("203.5127"))
+                .divide(new BigDecimal("1.3470"), 2, RoundingMode.HALF_UP);
+        assertEquals(exact.unscaledValue().longValue(),
+                CONV.convert(FixedPoint.parse("100"), usd, jpy));
+        assertEquals(-2, CONV.indexOf("XXX"));
+    }
+
+    @Test
+    public void agreesWithBigDecimalIncludingOverflowFallback() {
+        Random rnd = new Random(42);
+        long[] amounts = new long[500];
+        for (int k = 0; k < amounts.length; k++) {
+            amounts[k] = (k % 50 == 0) ? Long.MAX_VALUE / (k + 1) : rnd.nextInt(100_000_000);
+        }
+        long[] out = new long[amounts.length];
+        for (int from = BatchConverter.PIVOT; from < CONV.size(); from++) {
+            for (int to = BatchConverter.PIVOT; to < CONV.size(); to++) {
+                CONV.manyForPair(amounts, 2, from, to, out);
+                BigDecimal f = from < 0 ? BigDecimal.ONE : BigDecimal.valueOf(ITEMS.get(from).rate);
+                BigDecimal t = to < 0 ? BigDecimal.ONE : BigDecimal.valueOf(ITEMS.get(to).rate);
+                for (int k = 0; k < amounts.length; k++) {
+                    BigDecimal want = BigDecimal.valueOf(amounts[k], 2).multiply(t)
+                            .divide(f, 2, RoundingMode.HALF_UP);
+                    long expected = want.unscaledValue().bitLength() < 64
+                            ? want.unscaledValue().longValue() : FixedPoint.OVERFLOW;
+                    assertEquals(from + "->" + to + " " + amounts[k], expected, out[k]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void parsesAndRoundsHalfUp() {
+        FixedPoint.Value v = FixedPoint.parse("0,5");
+        assertEquals(5, v.unscaled);
+        assertEquals(1, v.scale);
+        assertNull(FixedPoint.parse("1.2.3"));
+        assertNull(FixedPoint.parse("."));
+        assertNull(FixedPoint.parse("abc"));
+        assertEquals(3, FixedPoint.divideHalfUp(5, 2));
+        assertEquals(-3, FixedPoint.divideHalfUp(-5, 2));
+        assertEquals("-0.05", FixedPoint.toPlainString(-5, 2));
+    }
+
+    @Test
+    public void longAndExponentAmountsGoThroughBigDecimal() {
+        FixedPoint.Value v = FixedPoint.parse("1.00000000000000000000");
+        assertEquals(1, v.unscaled);
+        assertEquals(0, v.scale);
+        assertNull(FixedPoint.parse("12345678901234567890")); // 20 digits: too large
+
+        v = FixedPoint.of(new BigDecimal("1e3"));
+        assertEquals(1000, v.unscaled);
+        assertEquals(0, v.scale);
+        assertNull(FixedPoint.of(new BigDecimal("1e999999999")));
+        v = FixedPoint.of(new BigDecimal("1e-999999999"));
+        assertEquals(0, v.unscaled);
+        assertEquals(40, v.scale);
+    }
+
+    @Test
+    public void doublesTooLargeForALongHaveNoExactValue() {
+        FixedPoint.Value v = FixedPoint.ofDouble(4.9471);
+        assertEquals(49471, v.unscaled);
+        assertEquals(4, v.scale);
+        assertEquals(1200, FixedPoint.ofDouble(1200.0).unscaled);
+        assertNull(FixedPoint.ofDouble(1e20));
+
+        RateItem huge = new RateItem("VND", "Dong", "", 1e20); // no longer throws
+        assertEquals(0, huge.rateUnscaled);                    // no usable exact rate
+        assertEquals(1e20, huge.rate, 0.0);
+    }
+}
@@ -0,0 +1,43 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class CrossRateEngineTest {
+
+    private static final CrossRateEngine ENGINE = CrossRateEngine.of(Arrays.asList(
+            new RateItem("USD", "US Dollar", "", 1.35),
+            new RateItem("JPY", "Japanese Yen", "", 202.5),
+            new RateItem("EUR", "Euro", "", 1.15)));
+
+    @Test
+    public void crossesThroughThePivot() {
+        assertEquals(150.0, ENGINE.rate("USD", "JPY"), 1e-9);
+        assertEquals(1 / 150.0, ENGINE.rate("JPY", "USD"), 1e-12);
+        assertEquals(1.35, ENGINE.rate("GBP", "USD"), 0.0);
+        assertEquals(1 / 1.15, ENGINE.rate("EUR", "GBP"), 1e-12);
+        assertEquals(1.0, ENGINE.rate("EUR", "EUR"), 0.0);
+    }
+
+    @Test
+    public void unknownCodesGiveNaN() {
+        assertTrue(Double.isNaN(ENGINE.rate("USD", "ZZZ-never-seen")));
+        int late = CrossRateEngine.ordinal("XTS");
+        assertFalse(ENGINE.has(late));
+        assertTrue(Double.isNaN(ENGINE.rate(late, CrossRateEngine.ordinal("USD"))));
+    }
+
+    @Test
+    public void fillWritesOneBaseAgainstAll() {
+        int usd = CrossRateEngine.ordinal("USD");
+        double[] out = new double[ENGINE.capacity()];
+        assertEquals(out.length, ENGINE.fill(usd, out));
+        assertEquals(1.0, out[usd], 0.0);
+        assertEquals(150.0, out[CrossRateEngine.ordinal("JPY")], 1e-9);
+        assertEquals(1 / 1.35, out[CrossRateEngine.ordinal("GBP")], 1e-12);
+        assertEquals(0, ENGINE.fill(CrossRateEngine.ordinal("XTS"), out));
+    }
+}
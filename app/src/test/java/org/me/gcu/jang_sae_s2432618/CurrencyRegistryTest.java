@@ -0,0 +1,57 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class CurrencyRegistryTest {
+
+    @Test
+    public void listedCodesCarryTheirIsoData() {
+        int gbp = CurrencyRegistry.ordinal("GBP");
+        assertTrue(CurrencyRegistry.isListed(gbp));
+        assertEquals("GBP", CurrencyRegistry.code(gbp));
+        assertEquals(826, CurrencyRegistry.numeric(gbp));
+        assertEquals(2, CurrencyRegistry.minorUnits(gbp));
+        assertEquals("GB", CurrencyRegistry.flagRegion(gbp));
+        assertEquals("Pound Sterling", CurrencyRegistry.name(gbp));
+
+        assertEquals(0, CurrencyRegistry.minorUnits(CurrencyRegistry.ordinal("JPY")));
+        assertEquals(3, CurrencyRegistry.minorUnits(CurrencyRegistry.ordinal("KWD")));
+        assertEquals(-1, CurrencyRegistry.minorUnits(CurrencyRegistry.ordinal("XAU")));
+        assertNull(CurrencyRegistry.flagRegion(CurrencyRegistry.ordinal("XAU")));
+    }
+
+    @Test
+    public void ordinalsAreStableAndSharedWithCharLookups() {
+        int usd = CurrencyRegistry.ordinal("USD");
+        assertEquals(usd, CurrencyRegistry.ordinal(new String("USD")));
+        assertEquals(usd, CurrencyRegistry.ordinal("x(USD)".toCharArray(), 2));
+        assertEquals(usd, CurrencyRegistry.find("USD"));
+        assertSame(CurrencyRegistry.code(usd), CurrencyRegistry.code(CurrencyRegistry.ordinal("USD")));
+    }
+
+    @Test
+    public void unlistedCodesAreInternedAfterTheTable() {
+        assertEquals(CurrencyRegistry.UNKNOWN, CurrencyRegistry.find("QQJ"));
+        int before = CurrencyRegistry.size();
+        int q = CurrencyRegistry.ordinal("QQJ");
+        assertEquals(before, q);
+        assertFalse(CurrencyRegistry.isListed(q));
+        assertEquals(q, CurrencyRegistry.find("QQJ"));
+        assertEquals(q, CurrencyRegistry.ordinal("QQJ"));
+        assertEquals("QQJ", CurrencyRegistry.code(q));
+        assertEquals("QQJ", CurrencyRegistry.name(q));
+        assertTrue(CurrencyRegistry.size() > q);
+    }
+
+    @Test
+    public void nonCodesHaveNoOrdinal() {
+        assertEquals(CurrencyRegistry.UNKNOWN, CurrencyRegistry.ordinal("usd"));
+        assertEquals(CurrencyRegistry.UNKNOWN, CurrencyRegistry.ordinal("US"));
+        assertEquals(CurrencyRegistry.UNKNOWN, CurrencyRegistry.ordinal("USDX"));
+        assertEquals(CurrencyRegistry.UNKNOWN, CurrencyRegistry.ordinal("U$D"));
+        assertEquals(CurrencyRegistry.UNKNOWN, CurrencyRegistry.ordinal((String) null));
+        assertNull(CurrencyRegistry.code(CurrencyRegistry.UNKNOWN));
+    }
+}
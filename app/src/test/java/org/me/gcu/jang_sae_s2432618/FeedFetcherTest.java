@@ -0,0 +1,140 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import static org.junit.Assert.*;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FeedFetcherTest {
+
+    private static final String FEED = "<?xml version=\"1.0\"?><rss version=\"2.0\"><channel>"
+            + "<title>British Pound Sterling(GBP) Currency Exchange Rates</title>"
+            + "<item><title>British Pound Sterling(GBP)/Euro(EUR)</title>"
+            + "<description>1 British Pound Sterling = 1.1395 Euro</description></item>"
+            + "</channel></rss>";
+
+    private HttpServer server;
+    private ExecutorService pool;
+    private String url;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/gbp/rss.xml", ex -> {
+            requests.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS); // hold the response until the test says so
+            } catch (InterruptedException ignored) { }
+            byte[] b = FEED.getBytes(StandardCharsets.UTF_8);
+            ex.sendResponseHeaders(200, b.length);
+            try (OutputStream os = ex.getResponseBody()) { os.write(b); }
+            ex.close();
+        });
+        server.createContext("/etag/rss.xml", ex -> {
+            // Revalidated, with a new ETag but no Last-Modified
+            ex.getResponseHeaders().set("ETag", "\"v2\"");
+            ex.sendResponseHeaders(304, -1);
+            ex.close();
+        });
+        server.createContext("/padded/rss.xml", ex -> {
+            // A feed followed by more junk than the fetcher will drain
+            byte[] feed = FEED.getBytes(StandardCharsets.UTF_8);
+            byte[] b = Arrays.copyOf(feed, feed.length + 2 * FeedFetcher.MAX_TRAILER_BYTES);
+            Arrays.fill(b, feed.length, b.length, (byte) ' ');
+            ex.sendResponseHeaders(200, b.length);
+            try (OutputStream os = ex.getResponseBody()) {
+                os.write(b);
+            } catch (IOException ignored) {
+                // the fetcher stops reading and hangs up
+            }
+            ex.close();
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/gbp/rss.xml";
+        pool = Executors.newFixedThreadPool(2);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        server.stop(0);
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void concurrentFetchesShareOneDownload() throws Exception {
+        FeedFetcher fetcher = new FeedFetcher(u -> FeedHttp.Validators.NONE, pool);
+
+        CompletableFuture<FeedFetcher.Result> first = fetcher.fetch(url);
+        CompletableFuture<FeedFetcher.Result> second = fetcher.fetch(url); // e.g. worker + rotation
+        release.countDown();
+
+        FeedFetcher.Result a = first.get(5, TimeUnit.SECONDS);
+        FeedFetcher.Result b = second.get(5, TimeUnit.SECONDS);
+        assertSame(a, b);
+        assertEquals(1, requests.get());
+        assertEquals(1, a.parsed.items.size());
+        assertEquals("EUR", a.parsed.items.get(0).code);
+    }
+
+    @Test
+    public void sameUrlWithAnotherBaseIsItsOwnDownload() throws Exception {
+        FeedFetcher fetcher = new FeedFetcher(u -> FeedHttp.Validators.NONE, pool);
+
+        CompletableFuture<FeedFetcher.Result> gbp = fetcher.fetch(url, "GBP");
+        CompletableFuture<FeedFetcher.Result> usd = fetcher.fetch(url, "USD");
+        release.countDown();
+
+        assertNotSame(gbp.get(5, TimeUnit.SECONDS), usd.get(5, TimeUnit.SECONDS));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void fetchAfterCompletionStartsANewDownload() throws Exception {
+        FeedFetcher fetcher = new FeedFetcher(u -> FeedHttp.Validators.NONE, pool);
+        release.countDown();
+
+        fetcher.fetch(url).get(5, TimeUnit.SECONDS);
+        fetcher.fetch(url).get(5, TimeUnit.SECONDS);
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void longTrailerIsNotDrainedAndHashesTheRates() throws Exception {
+        FeedFetcher fetcher = new FeedFetcher(u -> FeedHttp.Validators.NONE, pool);
+        FeedFetcher.Result r = fetcher.fetch(url.replace("/gbp/", "/padded/"))
+                .get(5, TimeUnit.SECONDS);
+        assertEquals(1, r.parsed.items.size());
+        assertEquals(RatesSnapshot.hashOf(r.parsed.items), r.bodyHash);
+    }
+
+    @Test
+    public void notModifiedKeepsTheValidatorsItCarries() throws Exception {
+        String lastModified = "Mon, 05 Oct 2026 10:00:00 GMT";
+        FeedFetcher fetcher = new FeedFetcher(
+                u -> new FeedHttp.Validators("\"v1\"", lastModified), pool);
+        FeedFetcher.Result r = fetcher.fetch(url.replace("/gbp/", "/etag/"))
+                .get(5, TimeUnit.SECONDS);
+        assertTrue(r.isNotModified());
+        assertEquals("\"v2\"", r.validators.etag);
+        assertEquals(lastModified, r.validators.lastModified); // not sent again: ours stands
+    }
+}
@@ -0,0 +1,170 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import static org.junit.Assert.*;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class FeedHttpTest {
+
+    private static final String BODY = "<rss><channel><title>t</title></channel></rss>";
+    private static final String ETAG = "\"v1\"";
+    private static final String LAST_MODIFIED = "Sat, 18 Oct 2025 09:00:00 GMT";
+
+    private HttpServer server;
+    private String url;
+    private final AtomicInteger bodiesSent = new AtomicInteger();
+
+    // Local stand-in for fx-exchange: honours If-None-Match / If-Modified-Since
+    @Before
+    public void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/gbp/rss.xml", ex -> {
+            String inm = ex.getRequestHeaders().getFirst("If-None-Match");
+            String ims = ex.getRequestHeaders().getFirst("If-Modified-Since");
+            ex.getResponseHeaders().add("ETag", ETAG);
+            ex.getResponseHeaders().add("Last-Modified", LAST_MODIFIED);
+            if (ETAG.equals(inm) || (inm == null && LAST_MODIFIED.equals(ims))) {
+                ex.sendResponseHeaders(304, -1);
+            } else {
+                bodiesSent.incrementAndGet();
+                byte[] b = BODY.getBytes(StandardCharsets.UTF_8);
+                ex.sendResponseHeaders(200, b.length);
+                try (OutputStream os = ex.getResponseBody()) { os.write(b); }
+            }
+            ex.close();
+        });
+        // Compressed variants, only when the client asks for them
+        for (String enc : new String[] {"gzip", "deflate", "raw-deflate"}) {
+            server.createContext("/" + enc + "/rss.xml", ex -> {
+                String accept = ex.getRequestHeaders().getFirst("Accept-Encoding");
+                byte[] b = big().getBytes(StandardCharsets.UTF_8);
+                if (accept != null && accept.contains(enc.equals("gzip") ? "gzip" : "deflate")) {
+                    b = compress(enc, b);
+                    ex.getResponseHeaders().add("Content-Encoding",
+                            enc.equals("gzip") ? "gzip" : "deflate");
+                }
+                ex.sendResponseHeaders(200, b.length);
+                try (OutputStream os = ex.getResponseBody()) { os.write(b); }
+                ex.close();
+            });
+        }
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/gbp/rss.xml";
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void firstFetchReturnsBodyAndValidators() throws Exception {
+        try (FeedHttp.Response r = FeedHttp.get(url, FeedHttp.Validators.NONE)) {
+            assertTrue(r.isOk());
+            assertEquals(ETAG, r.validators.etag);
+            assertEquals(LAST_MODIFIED, r.validators.lastModified);
+            try (InputStream in = r.body()) {
+                assertEquals(BODY, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        assertEquals(1, bodiesSent.get());
+    }
+
+    @Test
+    public void matchingEtagShortCircuitsWith304() throws Exception {
+        try (FeedHttp.Response r = FeedHttp.get(url, new FeedHttp.Validators(ETAG, null))) {
+            assertTrue(r.isNotModified());
+            assertFalse(r.isOk());
+        }
+        assertEquals(0, bodiesSent.get());
+    }
+
+    @Test
+    public void lastModifiedAloneAlsoRevalidates() throws Exception {
+        try (FeedHttp.Response r = FeedHttp.get(url, new FeedHttp.Validators(null, LAST_MODIFIED))) {
+            assertTrue(r.isNotModified());
+        }
+    }
+
+    @Test
+    public void staleEtagGetsFreshBody() throws Exception {
+        try (FeedHttp.Response r = FeedHttp.get(url, new FeedHttp.Validators("\"v0\"", null))) {
+            assertTrue(r.isOk());
+        }
+        assertEquals(1, bodiesSent.get());
+    }
+
+    @Test
+    public void gzipBodyIsDecompressedAndCounted() throws Exception {
+        assertDecoded("gzip");
+    }
+
+    @Test
+    public void zlibDeflateBodyIsDecompressed() throws Exception {
+        assertDecoded("deflate");
+    }
+
+    @Test
+    public void rawDeflateBodyIsDecompressed() throws Exception {
+        assertDecoded("raw-deflate");
+    }
+
+    @Test
+    public void bodyHashIsOverDecodedBytes() throws Exception {
+        long gzip = assertDecoded("gzip");
+        assertEquals(gzip, assertDecoded("deflate"));
+        assertEquals(gzip, assertDecoded("raw-deflate"));
+
+        try (FeedHttp.Response r = FeedHttp.get(url, null); InputStream in = r.body()) {
+            in.readAllBytes();
+            assertNotEquals(gzip, r.bodyHash());
+        }
+    }
+
+    private long assertDecoded(String path) throws Exception {
+        String base = url.substring(0, url.indexOf("/gbp/"));
+        try (FeedHttp.Response r = FeedHttp.get(base + "/" + path + "/rss.xml", null)) {
+            assertTrue(r.isOk());
+            assertEquals(path.equals("gzip") ? "gzip" : "deflate", r.encoding);
+            try (InputStream in = r.body()) {
+                assertEquals(big(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            assertEquals(big().length(), r.decodedBytes());
+            assertTrue("wire=" + r.wireBytes(), r.wireBytes() * 5 < r.decodedBytes());
+            return r.bodyHash();
+        }
+    }
+
+    private static String big() {
+        StringBuilder sb = new StringBuilder("<rss><channel>");
+        for (int i = 0; i < 200; i++) {
+            sb.append("<item><title>British Pound Sterling(GBP)/Euro(EUR)</title>")
+              .append("<description>1 British Pound Sterling = 1.1395 Euro</description></item>");
+        }
+        return sb.append("</channel></rss>").toString();
+    }
+
+    private static byte[] compress(String enc, byte[] plain) throws java.io.IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        OutputStream os = enc.equals("gzip") ? new GZIPOutputStream(bos)
+                : new DeflaterOutputStream(bos,
+                        new Deflater(Deflater.DEFAULT_COMPRESSION, enc.equals("raw-deflate")));
+        os.write(plain);
+        os.close();
+        return bos.toByteArray();
+    }
+}
@@ -0,0 +1,59 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class FlagUtilTest {
+
+    @Test
+    public void flagsMatchTheRepresentativeRegion() {
+        assertEquals("🇬🇧", FlagUtil.flagForCurrency("GBP"));
+        assertEquals("🇪🇺", FlagUtil.flagForCurrency("EUR"));
+        assertEquals("🇸🇳", FlagUtil.flagForCurrency("XOF"));
+        assertEquals("🇨🇼", FlagUtil.flagForCurrency("ANG"));
+        assertEquals("🇯🇵", FlagUtil.flagForCurrency("jpy"));
+    }
+
+    @Test
+    public void everyCallReturnsTheSameConstant() {
+        assertSame(FlagUtil.flagForCurrency("USD"), FlagUtil.flagForCurrency("USD"));
+        assertSame(FlagUtil.flagForCurrency("USD"),
+                FlagUtil.flagForCurrency(CurrencyRegistry.ordinal("USD")));
+    }
+
+    @Test
+    public void everyCodeMatchesTheOldTable() {
+        // Listed currencies the old map missed; the registry's flag column gives them one
+        Set<String> added = new HashSet<>(Arrays.asList(
+                "BMD", "CUC", "CVE", "ERN", "GGP", "KPW", "MWK", "SVC", "ZWG", "ZWL"));
+        char[] c = new char[3];
+        for (c[0] = 'A'; c[0] <= 'Z'; c[0]++) {
+            for (c[1] = 'A'; c[1] <= 'Z'; c[1]++) {
+                for (c[2] = 'A'; c[2] <= 'Z'; c[2]++) {
+                    String code = new String(c);
+                    String was = LegacyFlagUtil.flagForCurrency(code);
+                    if (added.contains(code)) {
+                        assertEquals(code, "", was);
+                        assertNotEquals(code, "", FlagUtil.flagForCurrency(code));
+                    } else {
+                        assertEquals(code, was, FlagUtil.flagForCurrency(code));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void noFlagIsEmpty() {
+        assertEquals("", FlagUtil.flagForCurrency("XAU"));
+        assertEquals("", FlagUtil.flagForCurrency("QQZ"));
+        assertEquals("", FlagUtil.flagForCurrency("EURO"));
+        assertEquals("", FlagUtil.flagForCurrency((String) null));
+        assertEquals("", FlagUtil.flagForCurrency(CurrencyRegistry.UNKNOWN));
+    }
+}
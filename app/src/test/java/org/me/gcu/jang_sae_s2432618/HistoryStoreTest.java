@@ -0,0 +1,106 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import static org.junit.Assert.*;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class HistoryStoreTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private static final long MIN = 60_000L;
+
+    private static List<RateItem> rates(double usd, double eur) {
+        return Arrays.asList(new RateItem("USD", "US Dollar", "", usd),
+                new RateItem("EUR", "Euro", "", eur));
+    }
+
+    private HistoryStore store() {
+        return new HistoryStore(new File(tmp.getRoot(), HistoryStore.DIR_NAME));
+    }
+
+    @Test
+    public void appendsRowsAndQueriesRanges() throws Exception {
+        HistoryStore h = store();
+        for (int i = 0; i < 10; i++) assertTrue(h.append(i * 15 * MIN, rates(1.30 + i / 100.0, 1.10)));
+        assertFalse(h.append(9 * 15 * MIN, rates(9, 9))); // not after the last row
+
+        assertEquals(10, h.rows());
+        HistoryStore.Series s = h.range("USD", 30 * MIN, 60 * MIN);
+        assertArrayEquals(new long[] {30 * MIN, 45 * MIN, 60 * MIN}, s.times);
+        assertArrayEquals(new double[] {1.32, 1.33, 1.34}, s.values, 1e-12);
+        assertEquals(0, h.range("USD", 1, 2).size());
+        assertEquals(0, h.range("JPY", 0, Long.MAX_VALUE).size());
+        assertEquals(0, h.range("../x", 0, Long.MAX_VALUE).size());
+    }
+
+    @Test
+    public void currenciesThatComeAndGoLeaveGaps() throws Exception {
+        HistoryStore h = store();
+        h.append(1, rates(1.3, 1.1));
+        h.append(2, Collections.singletonList(new RateItem("EUR", "Euro", "", 1.2)));
+        h.append(3, Arrays.asList(new RateItem("USD", "US Dollar", "", 1.4),
+                new RateItem("JPY", "Japanese Yen", "", 200)));
+
+        assertArrayEquals(new long[] {1, 3}, h.range("USD", 0, 10).times);
+        assertArrayEquals(new long[] {1, 2}, h.range("EUR", 0, 10).times);
+        assertArrayEquals(new double[] {200}, h.range("JPY", 0, 10).values, 0.0);
+    }
+
+    @Test
+    public void uncommittedColumnDataIsIgnoredAndOverwritten() throws Exception {
+        File dir = new File(tmp.getRoot(), HistoryStore.DIR_NAME);
+        HistoryStore h = store();
+        h.append(1, rates(1.3, 1.1));
+        h.append(2, rates(1.4, 1.2));
+        // Crash after the columns but before ts.bin: drop the last committed time
+        try (RandomAccessFile ts = new RandomAccessFile(new File(dir, "ts.bin"), "rw")) {
+            ts.setLength(ts.length() - 8);
+        }
+        assertEquals(1, h.rows());
+        assertEquals(1, h.range("USD", 0, 10).size());
+
+        h.append(5, rates(1.5, 1.3));
+        assertArrayEquals(new double[] {1.3, 1.5}, h.range("USD", 0, 10).values, 0.0);
+    }
+
+    @Test
+    public void compactionAveragesOldRowsIntoBuckets() throws Exception {
+        HistoryStore h = store();
+        long hour = 60 * MIN;
+        // Two hours of 15-minute rows, then one recent row
+        for (int i = 0; i < 8; i++) h.append(i * 15 * MIN, rates(1.0 + i, 2.0));
+        h.append(10 * hour, rates(50, 2.0));
+
+        assertEquals(6, h.compact(5 * hour, hour));
+        assertEquals(3, h.rows());
+        HistoryStore.Series s = h.range("USD", 0, Long.MAX_VALUE);
+        assertArrayEquals(new long[] {45 * MIN, 105 * MIN, 10 * hour}, s.times);
+        assertArrayEquals(new double[] {2.5, 6.5, 50}, s.values, 1e-12);
+        assertFalse(new File(tmp.getRoot(), HistoryStore.DIR_NAME + ".old").exists());
+
+        assertEquals(0, h.compact(5 * hour, hour)); // already at that resolution
+        assertTrue(h.append(11 * hour, rates(51, 2.0)));
+        assertEquals(4, h.rows());
+    }
+
+    @Test
+    public void recoversFromAnInterruptedSwap() throws Exception {
+        HistoryStore h = store();
+        h.append(1, rates(1.3, 1.1));
+        File dir = new File(tmp.getRoot(), HistoryStore.DIR_NAME);
+        assertTrue(dir.renameTo(new File(tmp.getRoot(), HistoryStore.DIR_NAME + ".old")));
+
+        assertEquals(1, store().rows());
+        assertEquals(1, store().range("EUR", 0, 10).size());
+    }
+}
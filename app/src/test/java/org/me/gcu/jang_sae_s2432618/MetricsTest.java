@@ -0,0 +1,57 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class MetricsTest {
+
+    @Test
+    public void percentilesStayWithinABucketOfTheTruth() {
+        Metrics.Histogram h = Metrics.histogram("test.latency", "us");
+        assertEquals(0, h.percentile(0.5));
+        for (int v = 1; v <= 1000; v++) h.record(v);
+        assertEquals(1000, h.count());
+        assertEquals(1000, h.max());
+        assertEquals(500, h.mean());
+        long p50 = h.percentile(0.50), p99 = h.percentile(0.99);
+        assertTrue(p50 + "", p50 >= 500 && p50 <= 500 * 1.125);
+        assertTrue(p99 + "", p99 >= 990 && p99 <= 1000);
+        assertEquals(1000, h.percentile(1.0));
+    }
+
+    @Test
+    public void bucketsCoverEveryValue() {
+        for (long v : new long[] {0, 1, 15, 16, 17, 31, 32, 1023, 1L << 40, Long.MAX_VALUE}) {
+            int b = Metrics.Histogram.bucket(v);
+            assertTrue(v + "", Metrics.Histogram.upperBound(b) >= v);
+            if (b > 0) assertTrue(v + "", Metrics.Histogram.upperBound(b - 1) < v);
+        }
+    }
+
+    @Test
+    public void registryReturnsOneInstancePerNameAndDumps() {
+        Metrics.Counter c = Metrics.counter("test.count");
+        assertSame(c, Metrics.counter("test.count"));
+        c.add(3);
+        c.inc();
+        assertEquals(4, c.get());
+        String dump = Metrics.dump("  ");
+        assertTrue(dump, dump.contains("  test.count: 4\n"));
+        assertTrue(dump, dump.contains("  parse.time: n="));
+    }
+
+    @Test
+    public void parserCountsItemsAndRejects() throws Exception {
+        long items = Metrics.PARSE_ITEMS.get(), rejected = Metrics.PARSE_REJECTED.get();
+        long parses = Metrics.PARSE_TIME.count();
+        RatesParser.parse("<rss><channel>"
+                + "<item><title>British Pound Sterling(GBP)/Euro(EUR)</title>"
+                + "<description>1 British Pound Sterling = 1.1395 Euro</description></item>"
+                + "<item><title>nonsense</title><description>none</description></item>"
+                + "</channel></rss>");
+        assertEquals(items + 1, Metrics.PARSE_ITEMS.get());
+        assertEquals(rejected + 1, Metrics.PARSE_REJECTED.get());
+        assertEquals(parses + 1, Metrics.PARSE_TIME.count());
+    }
+}
@@ -0,0 +1,199 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import static org.junit.Assert.*;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Runs against a local HTTP stand-in serving recorded-style feeds per base currency. */
+public class MultiFeedFetcherTest {
+
+    private static String feed(String baseName, String base, String... items) {
+        StringBuilder sb = new StringBuilder("<?xml version=\"1.0\"?><rss version=\"2.0\"><channel>")
+                .append("<title>").append(baseName).append('(').append(base)
+                .append(") Currency Exchange Rates</title>")
+                .append("<pubDate>Sat, 18 Oct 2025 09:00:00 GMT</pubDate>");
+        for (int i = 0; i < items.length; i += 3) {
+            sb.append("<item><title>").append(baseName).append('(').append(base).append(")/")
+                    .append(items[i + 1]).append('(').append(items[i]).append(")</title>")
+                    .append("<description>1 ").append(baseName).append(" = ").append(items[i + 2])
+                    .append(' ').append(items[i + 1]).append("</description></item>");
+        }
+        return sb.append("</channel></rss>").toString();
+    }
+
+    private static final String GBP = feed("British Pound Sterling", "GBP",
+            "USD", "US Dollar", "1.3333", "EUR", "Euro", "1.1395");
+    private static final String USD = feed("US Dollar", "USD",
+            "GBP", "British Pound Sterling", "0.75", "EUR", "Euro", "0.86",
+            "XAU", "Gold Ounce", "0.0003");
+    private static final String EUR = feed("Euro", "EUR",
+            "GBP", "British Pound Sterling", "0.8776", "CHF", "Swiss Franc", "0.93");
+
+    private HttpServer server;
+    private ExecutorService pool;
+    private String root;
+    private final Map<String, Integer> delayMs = new ConcurrentHashMap<>();
+    private final Map<String, Integer> status = new ConcurrentHashMap<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        for (String[] f : new String[][] {{"gbp", GBP}, {"usd", USD}, {"eur", EUR}, {"chf", EUR}}) {
+            server.createContext("/" + f[0] + "/rss.xml", ex -> {
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(delayMs.getOrDefault(f[0], 0));
+                } catch (InterruptedException ignored) { }
+                byte[] b = f[1].getBytes(StandardCharsets.UTF_8);
+                int code = status.getOrDefault(f[0], 200);
+                active.decrementAndGet();
+                ex.sendResponseHeaders(code, code == 200 ? b.length : -1);
+                if (code == 200) {
+                    try (OutputStream os = ex.getResponseBody()) { os.write(b); }
+                }
+                ex.close();
+            });
+        }
+        server.start();
+        root = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        pool = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        pool.shutdownNow();
+    }
+
+    private List<MultiFeedFetcher.Source> sources(String... bases) {
+        List<MultiFeedFetcher.Source> out = new ArrayList<>();
+        for (String b : bases) {
+            out.add(new MultiFeedFetcher.Source(b.toUpperCase(), root + b + "/rss.xml"));
+        }
+        return out;
+    }
+
+    private MultiFeedFetcher fetcher(int parallel, long timeoutMs) {
+        return new MultiFeedFetcher(new FeedFetcher(u -> FeedHttp.Validators.NONE, pool),
+                parallel, timeoutMs);
+    }
+
+    @Test
+    public void feedsRunInParallelAndMergeThroughGbp() throws Exception {
+        for (String b : Arrays.asList("gbp", "usd", "eur")) delayMs.put(b, 400);
+        long t0 = System.nanoTime();
+        MultiFeedFetcher.Merged m = fetcher(3, 5000).fetchAll(sources("gbp", "usd", "eur"))
+                .get(5, TimeUnit.SECONDS);
+        long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+        assertTrue("took " + ms + " ms", ms < 1000); // ~one feed, not three
+        assertNull(m.error());
+
+        FeedFetcher.Result r = m.toPivotResult();
+        List<String> codes = new ArrayList<>();
+        for (RateItem it : r.parsed.items) codes.add(it.code);
+        // GBP's own quotes first and untouched, then what only USD / EUR list
+        assertEquals(Arrays.asList("USD", "EUR", "XAU", "CHF"), codes);
+        assertEquals(11395, r.parsed.items.get(1).rateUnscaled);
+        // 1 GBP = 1.3333 USD, 1 USD = 0.0003 XAU
+        assertEquals(39999, r.parsed.items.get(2).rateUnscaled);
+        assertEquals(MultiFeedFetcher.REBASED_SCALE, r.parsed.items.get(2).rateScale);
+        assertEquals("British Pound Sterling(GBP) Currency Exchange Rates", r.parsed.title);
+    }
+
+    @Test
+    public void slowAndFailedFeedsDoNotHoldBackTheRest() throws Exception {
+        delayMs.put("usd", 3000);
+        status.put("eur", 500);
+        long t0 = System.nanoTime();
+        MultiFeedFetcher.Merged m = fetcher(3, 500).fetchAll(sources("gbp", "usd", "eur"))
+                .get(5, TimeUnit.SECONDS);
+        long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+        assertTrue("took " + ms + " ms", ms < 1500);
+
+        assertTrue(m.outcomes.get(0).ok());
+        assertTrue(m.outcomes.get(1).error instanceof TimeoutException);
+        assertNotNull(m.outcomes.get(2).error);
+        assertEquals(2, m.toPivotResult().parsed.items.size()); // GBP feed alone
+    }
+
+    @Test
+    public void otherBasesStandInWhenGbpFails() throws Exception {
+        status.put("gbp", 503);
+        MultiFeedFetcher.Merged m = fetcher(3, 5000).fetchAll(sources("gbp", "usd"))
+                .get(5, TimeUnit.SECONDS);
+        FeedFetcher.Result r = m.toPivotResult();
+        assertNotNull(r);
+        assertSame(FeedHttp.Validators.NONE, r.validators);
+
+        RateItem usd = r.parsed.items.get(0), eur = r.parsed.items.get(1);
+        assertEquals("USD", usd.code);
+        assertEquals(133333333, usd.rateUnscaled);  // 1 / 0.75 to 8 dp
+        assertEquals("EUR", eur.code);
+        assertEquals(114666666, eur.rateUnscaled);  // 0.86 x 1.33333333
+    }
+
+    @Test
+    public void gbpNotModifiedKeepsThePersistedSnapshot() throws Exception {
+        status.put("gbp", 304);
+        MultiFeedFetcher.Merged m = fetcher(3, 5000).fetchAll(sources("gbp", "usd"))
+                .get(5, TimeUnit.SECONDS);
+        assertTrue(m.outcomes.get(1).ok());
+        assertFalse(m.outcomes.get(1).result.isNotModified());
+        // USD's 200 is deliberately not merged: nothing to re-base it onto without GBP's quotes
+        FeedFetcher.Result r = m.toPivotResult();
+        assertTrue(r.isNotModified());
+        assertSame(m.outcomes.get(0).result, r);
+    }
+
+    @Test
+    public void concurrencyIsBounded() throws Exception {
+        for (String b : Arrays.asList("gbp", "usd", "eur", "chf")) delayMs.put(b, 200);
+        MultiFeedFetcher.Merged m = fetcher(2, 5000).fetchAll(sources("gbp", "usd", "eur", "chf"))
+                .get(5, TimeUnit.SECONDS);
+        assertEquals(4, m.outcomes.size());
+        for (MultiFeedFetcher.Outcome o : m.outcomes) assertTrue(o.source.base, o.ok());
+        assertEquals(2, maxActive.get());
+    }
+
+    @Test
+    public void aTimedOutDownloadIsCutOffAndFreesItsSlot() throws Exception {
+        delayMs.put("gbp", 4000);
+        long t0 = System.nanoTime();
+        MultiFeedFetcher.Merged m = fetcher(1, 200).fetchAll(sources("gbp", "usd"))
+                .get(5, TimeUnit.SECONDS);
+        long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+        assertTrue(m.outcomes.get(0).error instanceof TimeoutException);
+        assertTrue(m.outcomes.get(1).ok());
+        assertTrue("took " + ms + " ms", ms < 2000); // USD did not wait out GBP's 4 s
+    }
+
+    @Test
+    public void configuredBasesAlwaysLeadWithGbp() {
+        List<MultiFeedFetcher.Source> s = MultiFeedFetcher.Source.parse("usd, eur,usd,,x1,gbp");
+        assertEquals(3, s.size());
+        assertEquals("GBP", s.get(0).base);
+        assertEquals("https://www.fx-exchange.com/usd/rss.xml", s.get(1).url);
+        assertEquals("EUR", s.get(2).base);
+    }
+}
@@ -0,0 +1,79 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class RatesDeltaTest {
+
+    private static RateItem item(String code, double rate) {
+        return new RateItem(code, code + " name", "", rate);
+    }
+
+    @Test
+    public void identicalListsHaveNoDelta() {
+        List<RateItem> a = Arrays.asList(item("AED", 4.9471), item("EUR", 1.1395));
+        List<RateItem> b = Arrays.asList(item("AED", 4.9471), item("EUR", 1.1395));
+        assertSame(RatesDelta.NONE, RatesDelta.between(a, b));
+        assertTrue(RatesDelta.between(a, b).isEmpty());
+    }
+
+    @Test
+    public void comparesTheFeedsDigitsNotDoubles() {
+        // Same nearest double, different rates
+        RateItem was = new RateItem("IDR", "IDR name", "", 20801_1234567890123L, 13);
+        RateItem now = new RateItem("IDR", "IDR name", "", 20801_1234567890124L, 13);
+        assertEquals(was.rate, now.rate, 0.0);
+        assertEquals(1, RatesDelta.between(Collections.singletonList(was),
+                Collections.singletonList(now)).changed.size());
+
+        // Same rate written with a trailing zero
+        RateItem tenth = new RateItem("EUR", "EUR name", "", 11395, 4);
+        RateItem padded = new RateItem("EUR", "EUR name", "", 113950, 5);
+        assertSame(RatesDelta.NONE, RatesDelta.between(Collections.singletonList(tenth),
+                Collections.singletonList(padded)));
+    }
+
+    @Test
+    public void reportsAddedRemovedAndChangedByCode() {
+        List<RateItem> before = Arrays.asList(
+                item("AED", 4.9471), item("EUR", 1.1395), item("USD", 1.3470));
+        List<RateItem> after = Arrays.asList(
+                item("AED", 4.9471), item("EUR", 1.1402), item("JPY", 203.51));
+
+        RatesDelta d = RatesDelta.between(before, after);
+        assertEquals(1, d.added.size());
+        assertEquals("JPY", d.added.get(0).code);
+        assertEquals(1, d.removed.size());
+        assertEquals("USD", d.removed.get(0).code);
+        assertEquals(1, d.changed.size());
+        RatesDelta.Change c = d.changed.get(0);
+        assertEquals("EUR", c.code());
+        assertEquals(1.1395, c.oldRate(), 0.0);
+        assertEquals(1.1402, c.newRate(), 0.0);
+        assertFalse(d.reordered);
+    }
+
+    @Test
+    public void firstSnapshotIsAllAdded() {
+        List<RateItem> after = Arrays.asList(item("AED", 4.9471), item("EUR", 1.1395));
+        RatesDelta d = RatesDelta.between(Collections.emptyList(), after);
+        assertEquals(2, d.added.size());
+        assertTrue(d.removed.isEmpty());
+        assertTrue(d.changed.isEmpty());
+    }
+
+    @Test
+    public void orderOnlyChangeIsStillAChange() {
+        List<RateItem> a = Arrays.asList(item("AED", 4.9471), item("EUR", 1.1395));
+        List<RateItem> b = Arrays.asList(item("EUR", 1.1395), item("AED", 4.9471));
+        RatesDelta d = RatesDelta.between(a, b);
+        assertTrue(d.reordered);
+        assertTrue(d.changed.isEmpty());
+        assertFalse(d.isEmpty());
+    }
+}
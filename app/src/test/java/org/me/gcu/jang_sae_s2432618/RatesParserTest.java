@@ -71,4 +71,112 @@ public class RatesParserTest {
         assertTrue(items.get(1).title.contains("JPY"));
         assertTrue(items.get(1).desc.contains("183.42"));
     }
+
+    // --- RatesParser itself ----------------------------------------------------------------
+
+    private static final String FEED = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<rss version=\"2.0\"><channel>"
+            + "<title>British Pound Sterling(GBP) Currency Exchange Rates</title>"
+            + "<pubDate>Sat, 18 Oct 2025 09:00:00 GMT</pubDate>"
+            + "<item><title>British Pound Sterling(GBP)/United Arab Emirates Dirham(AED)</title>"
+            + "<description>1 British Pound Sterling = 4.9471 United Arab Emirates Dirham</description></item>"
+            + "<item><title>GBP/JPY</title><description>1 GBP = 183.42 JPY</description></item>"
+            + "<item><title>British Pound Sterling(GBP)/Euro(EUR)</title>"
+            + "<description><![CDATA[<b>1 GBP = 1,1395 EUR</b>&nbsp;]]></description></item>"
+            + "</channel></rss>";
+
+    @Test
+    public void parserExtractsCodeNameAndRate() throws Exception {
+        ParseResult pr = RatesParser.parse(FEED);
+
+        assertEquals("British Pound Sterling(GBP) Currency Exchange Rates", pr.title);
+        assertEquals("Sat, 18 Oct 2025 09:00:00 GMT", pr.lastUpdated);
+        assertEquals(3, pr.items.size());
+
+        assertEquals("AED", pr.items.get(0).code);
+        assertEquals("United Arab Emirates Dirham", pr.items.get(0).name);
+        assertEquals(4.9471, pr.items.get(0).rate, 0.0);
+
+        assertEquals("JPY", pr.items.get(1).code);
+        assertEquals(183.42, pr.items.get(1).rate, 0.0);
+
+        assertEquals("EUR", pr.items.get(2).code);
+        assertEquals("Euro", pr.items.get(2).name);
+        assertEquals(1.1395, pr.items.get(2).rate, 0.0);
+        assertEquals(11395, pr.items.get(2).rateUnscaled);
+        assertEquals(4, pr.items.get(2).rateScale);
+    }
+
+    @Test
+    public void parsesFromStreamWithJunkAroundXml() throws Exception {
+        String wrapped = "\n\n<!-- cache -->" + FEED + "<script>x()</script>";
+        List<RateItem> seen = new ArrayList<>();
+        ParseResult pr = RatesParser.parse(
+                new java.io.ByteArrayInputStream(("  " + wrapped).getBytes("UTF-8")),
+                null, seen::add);
+
+        assertEquals(3, pr.items.size());
+        assertEquals(3, seen.size());
+        assertEquals("EUR", seen.get(2).code);
+    }
+
+    @Test
+    public void scannerAgreesWithRegexPath() {
+        String[][] cases = {
+                {"British Pound Sterling(GBP)/United Arab Emirates Dirham(AED)",
+                        "1 British Pound Sterling = 4.9471 United Arab Emirates Dirham"},
+                {"GBP/JPY", "1 GBP = 183.42 JPY"},
+                {"GBP / USD", "<p>1 GBP = 1.3312 USD</p> on 18/10/2025"},
+                {"British Pound Sterling(GBP)/Euro(EUR)", "1 GBP=1,1395EUR"},
+                {"British Pound Sterling(GBP)/Korean Won (KRW)", "GBP = 1800 KRW&nbsp;updated 12:30"},
+                {"British Pound Sterling(GBP)/Bitcoin(BTC)", "no rate today"},
+                {"British Pound Sterling(GBP)/Indonesian Rupiah(IDR)",
+                        "1 British Pound Sterling = 21912.345678901234 Indonesian Rupiah"},
+                {"British Pound Sterling(GBP)/Kuwaiti Dinar(KWD)", "1 GBP = 0.41170 KWD"},
+                {"British Pound Sterling(GBP)/Iranian Rial(IRR)", "1 GBP = 56123456789012345678 IRR"},
+        };
+        for (String[] c : cases) {
+            RateTextScanner sc = new RateTextScanner();
+            sc.appendTitle(c[0].toCharArray(), 0, c[0].length());
+            sc.appendDescription(c[1].toCharArray(), 0, c[1].length());
+            assertTrue(c[0], sc.scanTitle());
+
+            RateItem fast = sc.buildItem();
+            RateItem slow = RatesParser.buildItemFrom(c[0], c[1]);
+            if (slow == null) {
+                assertNull(c[0], fast);
+            } else {
+                assertNotNull(c[0], fast);
+                assertEquals(c[0], slow.code, fast.code);
+                assertEquals(c[0], slow.name, fast.name);
+                assertEquals(c[0], slow.rate, fast.rate, 0.0);
+                assertEquals(c[0], slow.rateUnscaled, fast.rateUnscaled);
+                assertEquals(c[0], slow.rateScale, fast.rateScale);
+            }
+        }
+    }
+
+    @Test
+    public void rateKeepsTheFeedsExactDigits() {
+        RateItem kwd = RatesParser.buildItemFrom(
+                "British Pound Sterling(GBP)/Kuwaiti Dinar(KWD)", "1 GBP = 0.41170 KWD");
+        assertEquals(41170, kwd.rateUnscaled);
+        assertEquals(5, kwd.rateScale);
+        assertEquals(0.4117, kwd.rate, 0.0);
+
+        // 0.1 + 0.2 style artifacts never reach the conversion maths
+        RateItem usd = RatesParser.buildItemFrom("GBP/USD", "1 GBP = 1.3 USD");
+        assertEquals(390, FixedPoint.convert(300, 0, usd.rateUnscaled, usd.rateScale, 1, 0, 0));
+    }
+
+    @Test
+    public void unrecognisedTitleFallsBackToRegex() throws Exception {
+        String xml = "<rss><channel><item><title>Rate for USD today</title>"
+                + "<description>1 GBP = 1.33 USD</description></item></channel></rss>";
+        ParseResult pr = RatesParser.parse(xml);
+
+        assertEquals(1, pr.items.size());
+        assertEquals("USD", pr.items.get(0).code);
+        assertEquals(1.33, pr.items.get(0).rate, 0.0);
+    }
 }
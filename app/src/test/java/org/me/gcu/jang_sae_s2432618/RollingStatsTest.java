@@ -0,0 +1,91 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Random;
+
+public class RollingStatsTest {
+
+    private static final long MIN = 60_000L;
+
+    private static RateItem usd(double rate) {
+        return new RateItem("USD", "US Dollar", "", rate);
+    }
+
+    @Test
+    public void windowsSlideWithNewPoints() {
+        RollingStats s = new RollingStats();
+        // 1.0, 2.0, ... every 15 minutes
+        for (int i = 0; i < 8; i++) s.add(i * 15 * MIN, Collections.singletonList(usd(1.0 + i)));
+
+        RollingStats.Summary h1 = s.summary("USD", RollingStats.Window.H1);
+        // (45 min, 105 min]: 5, 6, 7, 8
+        assertEquals(4, h1.count);
+        assertEquals(5.0, h1.min, 0.0);
+        assertEquals(8.0, h1.max, 0.0);
+        assertEquals(6.5, h1.mean, 1e-12);
+        assertEquals(Math.sqrt(1.25), h1.stdDev, 1e-12);
+        assertEquals(60.0, s.changePercent("USD", RollingStats.Window.H1), 1e-9);
+
+        RollingStats.Summary d1 = s.summary("USD", RollingStats.Window.H24);
+        assertEquals(8, d1.count);
+        assertEquals(1.0, d1.first, 0.0);
+        assertEquals(0L, d1.firstTime);
+
+        assertNull(s.summary("EUR", RollingStats.Window.H24));
+        assertTrue(Double.isNaN(s.changePercent("EUR", RollingStats.Window.H24)));
+    }
+
+    @Test
+    public void stalePointsAndBadRatesAreIgnored() {
+        RollingStats s = new RollingStats();
+        s.add(100, Collections.singletonList(usd(2.0)));
+        s.add(100, Collections.singletonList(usd(9.0)));  // same time
+        s.add(50, Collections.singletonList(usd(9.0)));   // older
+        s.add(200, Collections.singletonList(usd(0.0)));  // no rate
+        assertEquals(1, s.summary("USD", RollingStats.Window.D30).count);
+        assertTrue(Double.isNaN(s.changePercent("USD", RollingStats.Window.D30)));
+    }
+
+    @Test
+    public void matchesBruteForceOverAMonthOfQuarterHours() {
+        RollingStats s = new RollingStats();
+        Random rnd = new Random(7);
+        int n = 40 * 24 * 4;
+        long[] t = new long[n];
+        double[] v = new double[n];
+        double rate = 1.30;
+        for (int i = 0; i < n; i++) {
+            t[i] = i * 15 * MIN + rnd.nextInt(60_000);
+            rate = Math.max(0.5, rate + (rnd.nextDouble() - 0.5) * 0.01);
+            v[i] = rate;
+        }
+        s.addSeries("USD", t, v);
+
+        for (RollingStats.Window w : RollingStats.Window.values()) {
+            long newest = t[n - 1];
+            double min = Double.MAX_VALUE, max = 0, sum = 0;
+            int c = 0;
+            for (int i = 0; i < n; i++) {
+                if (t[i] > newest - w.millis) {
+                    min = Math.min(min, v[i]);
+                    max = Math.max(max, v[i]);
+                    sum += v[i];
+                    c++;
+                }
+            }
+            double mean = sum / c, sq = 0;
+            for (int i = 0; i < n; i++) if (t[i] > newest - w.millis) sq += (v[i] - mean) * (v[i] - mean);
+
+            RollingStats.Summary got = s.summary("USD", w);
+            assertEquals(w.name(), c, got.count);
+            assertEquals(w.name(), min, got.min, 0.0);
+            assertEquals(w.name(), max, got.max, 0.0);
+            assertEquals(w.name(), mean, got.mean, 1e-9);
+            assertEquals(w.name(), Math.sqrt(sq / c), got.stdDev, 1e-7);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+public class SearchIndexTest {
+
+    private static final List<RateItem> ITEMS = Arrays.asList(
+            new RateItem("AUD", "Australian Dollar", "", 2.05),
+            new RateItem("EUR", "Euro", "", 1.14),
+            new RateItem("SGD", "Singapore Dollar", "", 1.74),
+            new RateItem("USD", "US Dollar", "", 1.35),
+            new RateItem("BRL", "Brazilian Real", "", 7.31),
+            new RateItem("RUB", "Russian Rouble", "", 108.2));
+
+    private static List<String> codes(SearchIndex.Hits hits) {
+        List<String> out = new ArrayList<>();
+        for (int p : hits.positions) out.add(ITEMS.get(p).code);
+        return out;
+    }
+
+    @Test
+    public void emptyQueryReturnsEverythingInFeedOrder() {
+        SearchIndex idx = new SearchIndex(ITEMS);
+        assertEquals(Arrays.asList("AUD", "EUR", "SGD", "USD", "BRL", "RUB"), codes(idx.query("  ")));
+    }
+
+    @Test
+    public void ranksExactCodeThenPrefixThenSubstring() {
+        SearchIndex idx = new SearchIndex(ITEMS);
+        // USD exact; "US Dollar" / "Russian" contain "us" mid-word, "Australian" too
+        assertEquals(Arrays.asList("USD", "AUD", "RUB"), codes(idx.query("US")));
+        // Word prefixes ("Dollar") all tie: feed order
+        assertEquals(Arrays.asList("AUD", "SGD", "USD"), codes(idx.query("dollar")));
+        // "Real" and "RUB" start with r; EUR only contains it
+        assertEquals(Arrays.asList("BRL", "RUB", "AUD", "EUR", "SGD", "USD"), codes(idx.query("r")));
+    }
+
+    @Test
+    public void matchesTheSameSetAsALinearScan() {
+        SearchIndex idx = new SearchIndex(ITEMS);
+        for (String q : new String[] {"a", "an", "ian", "lian", "ollar", "euro", "xyz", "ro", "d"}) {
+            List<String> expected = new ArrayList<>();
+            for (RateItem r : ITEMS) {
+                String n = q.toLowerCase(Locale.ROOT);
+                if (r.code.toLowerCase(Locale.ROOT).contains(n)
+                        || r.name.toLowerCase(Locale.ROOT).contains(n)) {
+                    expected.add(r.code);
+                }
+            }
+            List<String> got = codes(idx.query(q));
+            got.sort(null);
+            expected.sort(null);
+            assertEquals(q, expected, got);
+        }
+    }
+
+    @Test
+    public void narrowingAgreesWithAFreshQuery() {
+        SearchIndex idx = new SearchIndex(ITEMS);
+        SearchIndex.Hits h = idx.query("");
+        for (String typed : new String[] {"d", "do", "dol", "doll", "dolla", "dollar", "dollars"}) {
+            h = idx.narrow(h, typed);
+            assertEquals(typed, codes(idx.query(typed)), codes(h));
+        }
+        // Backspace is not an extension: falls back to a full query
+        assertEquals(codes(idx.query("do")), codes(idx.narrow(h, "do")));
+    }
+}
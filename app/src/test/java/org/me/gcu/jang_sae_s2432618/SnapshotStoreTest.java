@@ -0,0 +1,146 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import static org.junit.Assert.*;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class SnapshotStoreTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private static final List<RateItem> ITEMS = Arrays.asList(
+            new RateItem("AED", "United Arab Emirates Dirham", "", 4.9471),
+            new RateItem("EUR", "Euro", "", 1.1395),
+            new RateItem("VND", "Vietnamese Đồng", "", 35187.1234));
+
+    @Test
+    public void roundTripsRatesAndHeader() throws Exception {
+        SnapshotStore store = new SnapshotStore(new File(tmp.getRoot(), SnapshotStore.FILE_NAME));
+        RatesSnapshot in = RatesSnapshot.of(
+                new ParseResult("GBP rates", "Sat, 18 Oct 2025 09:00:00 GMT", ITEMS), 1234L)
+                .withVersion(7L);
+        store.write(in);
+
+        RatesSnapshot out = store.read();
+        assertNotNull(out);
+        assertEquals(7L, out.version);
+        assertEquals(1234L, out.fetchedAt);
+        assertEquals(in.contentHash, out.contentHash);
+
+        SnapshotStore.Header h = store.readHeader();
+        assertEquals(7L, h.version);
+        assertEquals(in.contentHash, h.contentHash);
+        assertEquals(3, h.count);
+        assertEquals("GBP rates", out.title);
+        assertEquals("Sat, 18 Oct 2025 09:00:00 GMT", out.pubDate);
+        assertEquals(3, out.items.size());
+        for (int i = 0; i < ITEMS.size(); i++) {
+            assertEquals(ITEMS.get(i).code, out.items.get(i).code);
+            assertEquals(ITEMS.get(i).name, out.items.get(i).name);
+            assertEquals(ITEMS.get(i).rate, out.items.get(i).rate, 0.0);
+            assertEquals(ITEMS.get(i).rateUnscaled, out.items.get(i).rateUnscaled);
+            assertEquals(ITEMS.get(i).rateScale, out.items.get(i).rateScale);
+        }
+    }
+
+    @Test
+    public void concurrentWritersEachLeaveACompleteFile() throws Exception {
+        File f = new File(tmp.getRoot(), SnapshotStore.FILE_NAME);
+        SnapshotStore store = new SnapshotStore(f);
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            final long at = t;
+            writers[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 50; i++) {
+                        store.write(RatesSnapshot.of(new ParseResult("t", "", ITEMS), at));
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread w : writers) w.join();
+        assertEquals(Collections.emptyList(), failures);
+        assertEquals(3, store.read().items.size());
+        assertArrayEquals(new String[] {SnapshotStore.FILE_NAME}, tmp.getRoot().list());
+    }
+
+    @Test
+    public void writeReplacesPreviousSnapshot() throws Exception {
+        File f = new File(tmp.getRoot(), SnapshotStore.FILE_NAME);
+        SnapshotStore store = new SnapshotStore(f);
+        store.write(RatesSnapshot.of(new ParseResult("a", "", ITEMS), 1L));
+        store.write(RatesSnapshot.of(new ParseResult("b", "", ITEMS.subList(0, 1)), 2L));
+
+        RatesSnapshot out = store.read();
+        assertEquals("b", out.title);
+        assertEquals(1, out.items.size());
+        assertFalse(new File(f.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    public void corruptItemCountReadsAsNoSnapshot() throws Exception {
+        File f = new File(tmp.getRoot(), SnapshotStore.FILE_NAME);
+        SnapshotStore store = new SnapshotStore(f);
+        for (int count : new int[] {-1, Integer.MAX_VALUE, 4}) { // 4: one more than written
+            store.write(RatesSnapshot.of(new ParseResult("t", "", ITEMS), 1L));
+            try (RandomAccessFile raf = new RandomAccessFile(f, "rw")) {
+                raf.seek(4 + 2 + 8 + 8 + 8); // magic, format, version, fetchedAt, hash
+                raf.writeInt(count);
+            }
+            assertNull("count " + count, store.read());
+        }
+    }
+
+    @Test
+    public void missingOrDamagedFileReadsAsNoSnapshot() throws Exception {
+        File f = new File(tmp.getRoot(), SnapshotStore.FILE_NAME);
+        SnapshotStore store = new SnapshotStore(f);
+        assertNull(store.read());
+        assertNull(store.readHeader());
+
+        store.write(RatesSnapshot.of(new ParseResult("t", "", ITEMS), 1L));
+        try (RandomAccessFile raf = new RandomAccessFile(f, "rw")) {
+            raf.setLength(raf.length() - 5); // truncated write from an older build / disk full
+        }
+        assertNull(store.read());
+
+        try (RandomAccessFile raf = new RandomAccessFile(f, "rw")) {
+            raf.writeInt(0xCAFEBABE);
+        }
+        assertNull(store.read());
+        assertNull(store.readHeader());
+    }
+
+    @Test
+    public void hashTracksContent() {
+        long a = RatesSnapshot.hashOf(ITEMS);
+        assertEquals(a, RatesSnapshot.hashOf(Arrays.asList(ITEMS.toArray(new RateItem[0]))));
+        assertNotEquals(a, RatesSnapshot.hashOf(Arrays.asList(
+                ITEMS.get(0), ITEMS.get(1), new RateItem("VND", "Vietnamese Đồng", "", 35187.1235))));
+
+        // Exact digits, not the double: a change it cannot hold still changes the hash ...
+        RateItem was = new RateItem("IDR", "Rupiah", "", 20801_1234567890123L, 13);
+        RateItem now = new RateItem("IDR", "Rupiah", "", 20801_1234567890124L, 13);
+        assertNotEquals(RatesSnapshot.hashOf(Collections.singletonList(was)),
+                RatesSnapshot.hashOf(Collections.singletonList(now)));
+        // ... while a trailing zero does not
+        assertEquals(RatesSnapshot.hashOf(Collections.singletonList(
+                        new RateItem("EUR", "Euro", "", 11395, 4))),
+                RatesSnapshot.hashOf(Collections.singletonList(
+                        new RateItem("EUR", "Euro", "", 113950, 5))));
+    }
+}
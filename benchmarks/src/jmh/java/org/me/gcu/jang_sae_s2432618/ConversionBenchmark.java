@@ -0,0 +1,138 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConverterFragment.doConvert's BigDecimal arithmetic and display formatting, and
+ * CrossRateEngine pair lookups against the list scan + BigDecimal they replace, and
+ * BatchConverter's fixed-point batches against the same work done in BigDecimal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConversionBenchmark {
+
+    private String amountText = "1234.56";
+    private double rate;
+
+    private List<RateItem> items;
+    private CrossRateEngine engine;
+    private int usd, jpy;
+    private double[] all;
+    private BatchConverter batch;
+    private FixedPoint.Value amount;
+    private long[] amounts, outMinor;
+
+    @Setup
+    public void setUp() {
+        rate = 183.4217;
+        items = FeedFixtures.items(150);
+        engine = CrossRateEngine.of(items);
+        usd = CrossRateEngine.ordinal("USD");
+        jpy = CrossRateEngine.ordinal("JPY");
+        all = new double[engine.capacity()];
+        batch = new BatchConverter(items);
+        amount = FixedPoint.parse(amountText);
+        amounts = new long[1000];
+        for (int k = 0; k < amounts.length; k++) amounts[k] = 100L * k + 37;
+        outMinor = new long[Math.max(items.size(), amounts.length)];
+    }
+
+    /** USD -> JPY by finding both GBP rates in the list, dividing in BigDecimal. */
+    @Benchmark
+    public BigDecimal crossByScan() {
+        BigDecimal from = null, to = null;
+        for (RateItem r : items) {
+            if ("USD".equals(r.code)) from = BigDecimal.valueOf(r.rate);
+            else if ("JPY".equals(r.code)) to = BigDecimal.valueOf(r.rate);
+        }
+        return to.divide(from, 12, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public double crossByEngine() {
+        return engine.rate(usd, jpy);
+    }
+
+    /** USD against every currency in the snapshot. */
+    @Benchmark
+    public double[] crossFillAll() {
+        engine.fill(usd, all);
+        return all;
+    }
+
+    /** 1234.56 USD in every currency, exact to 2 dp, with BigDecimal. */
+    @Benchmark
+    public BigDecimal[] oneToAllBigDecimal() {
+        BigDecimal amt = new BigDecimal(amountText);
+        BigDecimal from = null;
+        for (RateItem r : items) if ("USD".equals(r.code)) from = BigDecimal.valueOf(r.rate);
+        BigDecimal[] out = new BigDecimal[items.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = amt.multiply(BigDecimal.valueOf(items.get(i).rate))
+                    .divide(from, 2, RoundingMode.HALF_UP);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public long[] oneToAllBatch() {
+        batch.oneToAll(amount, batch.indexOf("USD"), outMinor);
+        return outMinor;
+    }
+
+    /** 1000 USD amounts (in cents) to JPY, exact to 2 dp. */
+    @Benchmark
+    public long[] manyForPairBatch() {
+        batch.manyForPair(amounts, 2, batch.indexOf("USD"), batch.indexOf("JPY"), outMinor);
+        return outMinor;
+    }
+
+    @Benchmark
+    public BigDecimal[] manyForPairBigDecimal() {
+        BigDecimal from = null, to = null;
+        for (RateItem r : items) {
+            if ("USD".equals(r.code)) from = BigDecimal.valueOf(r.rate);
+            else if ("JPY".equals(r.code)) to = BigDecimal.valueOf(r.rate);
+        }
+        BigDecimal[] out = new BigDecimal[amounts.length];
+        for (int k = 0; k < amounts.length; k++) {
+            out[k] = BigDecimal.valueOf(amounts[k], 2).multiply(to)
+                    .divide(from, 2, RoundingMode.HALF_UP);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public String gbpToX() {
+        BigDecimal amt = new BigDecimal(amountText.replace(',', '.'));
+        BigDecimal out = amt.multiply(BigDecimal.valueOf(rate));
+        return format(amt, out);
+    }
+
+    @Benchmark
+    public String xToGbp() {
+        BigDecimal amt = new BigDecimal(amountText.replace(',', '.'));
+        BigDecimal out = amt.divide(BigDecimal.valueOf(rate), 12, RoundingMode.HALF_UP);
+        return format(amt, out);
+    }
+
+    private static String format(BigDecimal amt, BigDecimal out) {
+        return String.format(Locale.UK, "Result: £%s GBP = %s %s",
+                amt.setScale(2, RoundingMode.HALF_UP).toPlainString(),
+                out.setScale(2, RoundingMode.HALF_UP).toPlainString(),
+                "JPY");
+    }
+}
@@ -0,0 +1,117 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Builds fx-exchange style RSS feeds and rate lists for the benchmarks. */
+final class FeedFixtures {
+    private FeedFixtures() {}
+
+    /** Real codes + names, roughly as the live GBP feed lists them. */
+    static final String[][] CURRENCIES = {
+            {"AED", "United Arab Emirates Dirham"}, {"AFN", "Afghan Afghani"}, {"ALL", "Albanian Lek"},
+            {"AMD", "Armenian Dram"}, {"ANG", "Netherlands Antillean Guilder"}, {"AOA", "Angolan Kwanza"},
+            {"ARS", "Argentine Peso"}, {"AUD", "Australian Dollar"}, {"AWG", "Aruban Florin"},
+            {"AZN", "Azerbaijani Manat"}, {"BAM", "Bosnia-Herzegovina Convertible Mark"},
+            {"BBD", "Barbadian Dollar"}, {"BDT", "Bangladeshi Taka"}, {"BGN", "Bulgarian Lev"},
+            {"BHD", "Bahraini Dinar"}, {"BIF", "Burundian Franc"}, {"BND", "Brunei Dollar"},
+            {"BOB", "Bolivian Boliviano"}, {"BRL", "Brazilian Real"}, {"BSD", "Bahamian Dollar"},
+            {"BTN", "Bhutanese Ngultrum"}, {"BWP", "Botswanan Pula"}, {"BYN", "Belarusian Ruble"},
+            {"BZD", "Belize Dollar"}, {"CAD", "Canadian Dollar"}, {"CDF", "Congolese Franc"},
+            {"CHF", "Swiss Franc"}, {"CLP", "Chilean Peso"}, {"CNY", "Chinese Yuan"},
+            {"COP", "Colombian Peso"}, {"CRC", "Costa Rican Colon"}, {"CUP", "Cuban Peso"},
+            {"CZK", "Czech Koruna"}, {"DJF", "Djiboutian Franc"}, {"DKK", "Danish Krone"},
+            {"DOP", "Dominican Peso"}, {"DZD", "Algerian Dinar"}, {"EGP", "Egyptian Pound"},
+            {"ETB", "Ethiopian Birr"}, {"EUR", "Euro"}, {"FJD", "Fijian Dollar"},
+            {"FKP", "Falkland Islands Pound"}, {"GEL", "Georgian Lari"}, {"GHS", "Ghanaian Cedi"},
+            {"GIP", "Gibraltar Pound"}, {"GMD", "Gambian Dalasi"}, {"GNF", "Guinean Franc"},
+            {"GTQ", "Guatemalan Quetzal"}, {"GYD", "Guyanaese Dollar"}, {"HKD", "Hong Kong Dollar"},
+            {"HNL", "Honduran Lempira"}, {"HTG", "Haitian Gourde"}, {"HUF", "Hungarian Forint"},
+            {"IDR", "Indonesian Rupiah"}, {"ILS", "Israeli New Shekel"}, {"INR", "Indian Rupee"},
+            {"IQD", "Iraqi Dinar"}, {"IRR", "Iranian Rial"}, {"ISK", "Icelandic Krona"},
+            {"JMD", "Jamaican Dollar"}, {"JOD", "Jordanian Dinar"}, {"JPY", "Japanese Yen"},
+            {"KES", "Kenyan Shilling"}, {"KGS", "Kyrgystani Som"}, {"KHR", "Cambodian Riel"},
+            {"KMF", "Comorian Franc"}, {"KRW", "South Korean Won"}, {"KWD", "Kuwaiti Dinar"},
+            {"KYD", "Cayman Islands Dollar"}, {"KZT", "Kazakhstani Tenge"}, {"LAK", "Laotian Kip"},
+            {"LBP", "Lebanese Pound"}, {"LKR", "Sri Lankan Rupee"}, {"LRD", "Liberian Dollar"},
+            {"LSL", "Lesotho Loti"}, {"LYD", "Libyan Dinar"}, {"MAD", "Moroccan Dirham"},
+            {"MDL", "Moldovan Leu"}, {"MGA", "Malagasy Ariary"}, {"MKD", "Macedonian Denar"},
+            {"MMK", "Myanmar Kyat"}, {"MNT", "Mongolian Tugrik"}, {"MOP", "Macanese Pataca"},
+            {"MRU", "Mauritanian Ouguiya"}, {"MUR", "Mauritian Rupee"}, {"MVR", "Maldivian Rufiyaa"},
+            {"MXN", "Mexican Peso"}, {"MYR", "Malaysian Ringgit"}, {"MZN", "Mozambican Metical"},
+            {"NAD", "Namibian Dollar"}, {"NGN", "Nigerian Naira"}, {"NIO", "Nicaraguan Cordoba"},
+            {"NOK", "Norwegian Krone"}, {"NPR", "Nepalese Rupee"}, {"NZD", "New Zealand Dollar"},
+            {"OMR", "Omani Rial"}, {"PAB", "Panamanian Balboa"}, {"PEN", "Peruvian Sol"},
+            {"PGK", "Papua New Guinean Kina"}, {"PHP", "Philippine Peso"}, {"PKR", "Pakistani Rupee"},
+            {"PLN", "Polish Zloty"}, {"PYG", "Paraguayan Guarani"}, {"QAR", "Qatari Rial"},
+            {"RON", "Romanian Leu"}, {"RSD", "Serbian Dinar"}, {"RUB", "Russian Ruble"},
+            {"RWF", "Rwandan Franc"}, {"SAR", "Saudi Riyal"}, {"SBD", "Solomon Islands Dollar"},
+            {"SCR", "Seychellois Rupee"}, {"SDG", "Sudanese Pound"}, {"SEK", "Swedish Krona"},
+            {"SGD", "Singapore Dollar"}, {"SHP", "Saint Helena Pound"}, {"SLE", "Sierra Leonean Leone"},
+            {"SOS", "Somali Shilling"}, {"SRD", "Surinamese Dollar"}, {"SSP", "South Sudanese Pound"},
+            {"STN", "Sao Tome and Principe Dobra"}, {"SYP", "Syrian Pound"}, {"SZL", "Swazi Lilangeni"},
+            {"THB", "Thai Baht"}, {"TJS", "Tajikistani Somoni"}, {"TMT", "Turkmenistani Manat"},
+            {"TND", "Tunisian Dinar"}, {"TOP", "Tongan Pa'anga"}, {"TRY", "Turkish Lira"},
+            {"TTD", "Trinidad and Tobago Dollar"}, {"TWD", "New Taiwan Dollar"},
+            {"TZS", "Tanzanian Shilling"}, {"UAH", "Ukrainian Hryvnia"}, {"UGX", "Ugandan Shilling"},
+            {"USD", "US Dollar"}, {"UYU", "Uruguayan Peso"}, {"UZS", "Uzbekistan Som"},
+            {"VES", "Venezuelan Bolivar"}, {"VND", "Vietnamese Dong"}, {"VUV", "Vanuatu Vatu"},
+            {"WST", "Samoan Tala"}, {"XAF", "Central African CFA Franc"},
+            {"XCD", "East Caribbean Dollar"}, {"XOF", "West African CFA Franc"},
+            {"XPF", "CFP Franc"}, {"YER", "Yemeni Rial"}, {"ZAR", "South African Rand"},
+            {"ZMW", "Zambian Kwacha"}, {"GGP", "Guernsey Pound"}, {"IMP", "Manx Pound"},
+            {"JEP", "Jersey Pound"}, {"KPW", "North Korean Won"}, {"CVE", "Cape Verdean Escudo"},
+            {"ERN", "Eritrean Nakfa"},
+    };
+
+    /** Code for item i: the real table first, then synthetic AAA..ZZZ codes. */
+    static String code(int i) {
+        if (i < CURRENCIES.length) return CURRENCIES[i][0];
+        int k = i % (26 * 26 * 26);
+        return "" + (char) ('A' + k / 676) + (char) ('A' + (k / 26) % 26) + (char) ('A' + k % 26);
+    }
+
+    static String name(int i) {
+        return (i < CURRENCIES.length) ? CURRENCIES[i][1] : "Synthetic Currency " + i;
+    }
+
+    /** A plausible GBP -> code rate spread over several orders of magnitude. */
+    static double rate(int i) {
+        double base = 0.3 + (i * 7919 % 1000) / 97.0;
+        return (i % 5 == 0) ? base * 1000 : base;
+    }
+
+    /** RSS 2.0 feed with {@code n} items, in the live feed's title/description format. */
+    static String feed(int n) {
+        StringBuilder sb = new StringBuilder(256 + n * 260);
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<rss version=\"2.0\"><channel>\n")
+                .append("<title>British Pound Sterling(GBP) Currency Exchange Rates</title>\n")
+                .append("<link>https://gbp.fx-exchange.com/</link>\n")
+                .append("<pubDate>Sat, 18 Oct 2025 09:00:00 GMT</pubDate>\n");
+        for (int i = 0; i < n; i++) {
+            String code = code(i), name = name(i);
+            sb.append("<item>\n<title>British Pound Sterling(GBP)/").append(name)
+                    .append('(').append(code).append(")</title>\n")
+                    .append("<link>https://gbp.fx-exchange.com/").append(code.toLowerCase())
+                    .append("/</link>\n")
+                    .append("<guid>https://gbp.fx-exchange.com/").append(code.toLowerCase())
+                    .append("/</guid>\n")
+                    .append("<pubDate>Sat, 18 Oct 2025 09:00:00 GMT</pubDate>\n")
+                    .append("<description>1 British Pound Sterling = ")
+                    .append(String.format(java.util.Locale.US, "%.4f", rate(i)))
+                    .append(' ').append(name).append("</description>\n")
+                    .append("<category>").append(name).append("</category>\n</item>\n");
+        }
+        return sb.append("</channel></rss>\n").toString();
+    }
+
+    /** Already-parsed items matching {@link #feed(int)}. */
+    static List<RateItem> items(int n) {
+        List<RateItem> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            // The feed shows 4 dp, so that is what parsing yields
+            out.add(new RateItem(code(i), name(i), "", Math.round(rate(i) * 1e4) / 1e4));
+        }
+        return out;
+    }
+}
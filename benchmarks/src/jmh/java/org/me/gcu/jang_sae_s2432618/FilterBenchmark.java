@@ -0,0 +1,80 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The search filter run on every query change: the old linear scan (lowercasing every field
+ * per query) against SearchIndex, fresh and narrowed from the query minus its last char.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FilterBenchmark {
+
+    @Param({"170", "5000"})
+    public int items;
+
+    // one-letter (matches a lot), a code, and a word from the middle of names
+    @Param({"a", "usd", "dollar"})
+    public String query;
+
+    private List<RateItem> rates;
+    private SearchIndex index;
+    private SearchIndex.Hits oneShorter;
+
+    @Setup
+    public void setUp() {
+        rates = FeedFixtures.items(items);
+        index = new SearchIndex(rates);
+        oneShorter = index.query(query.substring(0, query.length() - 1));
+    }
+
+    /** The loop RatesViewModel.recompute used before SearchIndex. */
+    @Benchmark
+    public List<RateItem> linearScan() {
+        final String needle = query.trim().toLowerCase(Locale.ROOT);
+        List<RateItem> out = new ArrayList<>();
+        for (RateItem r : rates) {
+            String code = safe(r.code);
+            String name = safe(r.name);
+            String country = safe(r.country);
+            if (code.contains(needle) || name.contains(needle) || country.contains(needle)) {
+                out.add(r);
+            }
+        }
+        return out;
+    }
+
+    @Benchmark
+    public SearchIndex.Hits indexQuery() {
+        return index.query(query);
+    }
+
+    /** Typing the last char of the query. */
+    @Benchmark
+    public SearchIndex.Hits indexNarrow() {
+        return index.narrow(oneShorter, query);
+    }
+
+    /** Paid once per snapshot, not per query. */
+    @Benchmark
+    public SearchIndex buildIndex() {
+        return new SearchIndex(rates);
+    }
+
+    private static String safe(String v) {
+        return v == null ? "" : v.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,56 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FlagUtil.flagForCurrency, called for every row RateRow.Factory builds: the dense table
+ * (by code and by ordinal) against the old HashMap + per-call emoji build. Run with the gc
+ * profiler to see the allocation per call drop to zero.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FlagUtilBenchmark {
+
+    private static final int CODES = 150;
+
+    private final String[] codes = new String[CODES];
+    private final int[] ordinals = new int[CODES];
+
+    {
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = FeedFixtures.CURRENCIES[i][0];
+            ordinals[i] = CurrencyRegistry.ordinal(codes[i]);
+        }
+    }
+
+    /** Per-call cost averaged over the codes of a realistic feed. */
+    @Benchmark
+    @OperationsPerInvocation(CODES)
+    public void flagForCurrency(Blackhole bh) {
+        for (String c : codes) bh.consume(FlagUtil.flagForCurrency(c));
+    }
+
+    /** Same, from the ordinal a RateItem already carries. */
+    @Benchmark
+    @OperationsPerInvocation(CODES)
+    public void flagForOrdinal(Blackhole bh) {
+        for (int o : ordinals) bh.consume(FlagUtil.flagForCurrency(o));
+    }
+
+    /** Before: HashMap lookup and a freshly built emoji String per call. */
+    @Benchmark
+    @OperationsPerInvocation(CODES)
+    public void legacyFlagForCurrency(Blackhole bh) {
+        for (String c : codes) bh.consume(LegacyFlagUtil.flagForCurrency(c));
+    }
+}
@@ -0,0 +1,44 @@
+package org.me.gcu.jang_sae_s2432618;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/** RatesParser over a realistic 150-item feed and a synthetic 10k-item one. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RatesParserBenchmark {
+
+    @Param({"150", "10000"})
+    public int items;
+
+    private String xml;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        xml = FeedFixtures.feed(items);
+        bytes = xml.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public ParseResult parseString() throws Exception {
+        return RatesParser.parse(xml);
+    }
+
+    /** What the fetchers do: parse straight off the (here in-memory) response body. */
+    @Benchmark
+    public ParseResult parseStream() throws Exception {
+        return RatesParser.parse(new ByteArrayInputStream(bytes), null, null);
+    }
+}